@@ -0,0 +1,134 @@
+package DPM_TEAM04;
+
+/**
+ * A piece of hardware attached to a port of the brick. Opening a port takes a
+ * noticeable amount of time, so devices are not created when Resources is
+ * loaded: they are created on the first call to {@link #get()}, or in the
+ * background after {@link #initializeLater()} so several ports can come up at
+ * the same time. The time taken to create the device is recorded.
+ * 
+ * @author team04
+ *
+ * @param <T>
+ *            the type of the device
+ */
+public abstract class Device<T> {
+
+	// name of the device, used for reporting
+	public final String NAME;
+
+	private volatile T device;
+	private Throwable error;
+	private boolean isStarted;
+	private long initTime = -1;
+
+	public Device(String name) {
+		NAME = name;
+	}
+
+	/**
+	 * Creates the device, implementation is port specific. Called only once.
+	 * 
+	 * @return the initialized device
+	 */
+	protected abstract T create();
+
+	/**
+	 * Starts creating the device on a background thread and returns right
+	 * away. Does nothing if the device is already created or being created.
+	 */
+	public void initializeLater() {
+		synchronized (this) {
+			if (isStarted)
+				return;
+			isStarted = true;
+		}
+
+		Thread initThread = new Thread() {
+			@Override
+			public void run() {
+				initialize();
+			}
+		};
+		initThread.setDaemon(true);
+		initThread.start();
+	}
+
+	/**
+	 * Returns the device, creating it on the calling thread if it was not
+	 * started yet, or waiting for the background creation to finish.
+	 * Whatever the creation threw is thrown again to every caller.
+	 * 
+	 * @return the initialized device
+	 */
+	public T get() {
+		// fast path once the device exists
+		T d = device;
+		if (d != null)
+			return d;
+
+		boolean createHere = false;
+		synchronized (this) {
+			if (!isStarted) {
+				isStarted = true;
+				createHere = true;
+			}
+		}
+		if (createHere)
+			initialize();
+
+		synchronized (this) {
+			while (device == null && error == null) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// A device is required to continue, keep waiting
+				}
+			}
+			if (error instanceof RuntimeException)
+				throw (RuntimeException) error;
+			if (error instanceof Error)
+				throw (Error) error;
+			return device;
+		}
+	}
+
+	/**
+	 * Returns whether the device was created
+	 * 
+	 * @return true if {@link #get()} returns without waiting
+	 */
+	public boolean isReady() {
+		return device != null;
+	}
+
+	/**
+	 * Returns the time it took to create the device
+	 * 
+	 * @return the initialization time in ms, -1 if not created yet
+	 */
+	public synchronized long getInitTime() {
+		return initTime;
+	}
+
+	private void initialize() {
+		long start = System.currentTimeMillis();
+		T d = null;
+		Throwable e = null;
+		try {
+			d = create();
+		} catch (Throwable ex) {
+			// Errors too (e.g. a sensor class failing to load), or get()
+			// would wait for the device forever
+			e = ex;
+		}
+		long end = System.currentTimeMillis();
+
+		synchronized (this) {
+			error = e;
+			initTime = end - start;
+			device = d;
+			notifyAll();
+		}
+	}
+}
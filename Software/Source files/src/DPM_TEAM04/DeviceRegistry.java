@@ -0,0 +1,60 @@
+package DPM_TEAM04;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps track of the devices attached to the brick so they can all be
+ * initialized concurrently and their initialization times reported.
+ * 
+ * @author team04
+ *
+ */
+public class DeviceRegistry {
+
+	private ArrayList<Device<?>> devices;
+
+	public DeviceRegistry() {
+		this.devices = new ArrayList<>();
+	}
+
+	/**
+	 * Adds one or many devices to the registry
+	 * 
+	 * @param inputDevices
+	 *            the device(s) to add
+	 */
+	public synchronized void register(Device<?>... inputDevices) {
+		for (Device<?> device : inputDevices)
+			devices.add(device);
+	}
+
+	/**
+	 * Starts initializing every registered device in the background. Each
+	 * device is created on its own thread so ports come up concurrently.
+	 */
+	public synchronized void initializeAll() {
+		for (Device<?> device : devices)
+			device.initializeLater();
+	}
+
+	/**
+	 * Initializes every registered device (concurrently) and waits until they
+	 * are all ready.
+	 */
+	public synchronized void awaitAll() {
+		initializeAll();
+		for (Device<?> device : devices)
+			device.get();
+	}
+
+	/**
+	 * Prints the initialization time of every device that is ready
+	 */
+	public synchronized void printInitTimes() {
+		for (Device<?> device : devices) {
+			if (device.isReady())
+				System.out.println(device.NAME + " " + device.getInitTime()
+						+ "ms");
+		}
+	}
+}
@@ -1,284 +1,506 @@
-package DPM_TEAM04;
-
-import java.util.Arrays;
-import java.util.HashMap;
-
-import lejos.hardware.Sound;
-import lejos.hardware.ev3.LocalEV3;
-import lejos.hardware.lcd.TextLCD;
-import lejos.hardware.motor.EV3LargeRegulatedMotor;
-import lejos.hardware.sensor.EV3ColorSensor;
-import lejos.hardware.sensor.EV3UltrasonicSensor;
-import lejos.robotics.SampleProvider;
-import lejos.robotics.geometry.Point2D;
-import lejos.robotics.geometry.Rectangle2D;
-import lejos.utility.Delay;
-
-/**
- * This class contains all resources (Motors, Sensors, Filters, Display) and all
- * constants required for operation. Resources are initialized once this class
- * is loaded by the JVM
- * 
- * Sensor data is also acquired through this class
- * 
- * @author Kareem Halabi, Alexis Giguere-Joannette, Tristan Toupin
- * @version 3.0
- */
-public class Resources {
-
-	// Wifi
-
-	public static final String SERVER_IP = "192.168.2.3";
-	public static final int TEAM_NUMBER = 4;
-	public static boolean isBuilder;
-	public static int startingCorner;
-	public static HashMap<String, Integer> wifiData;
-
-	// MAP
-	public static final int MAP_DIMENSION = 12; // 12 X 12 tiles
-
-	// Distance Constants
-	public static final double TILE_WIDTH = 30.48,
-			HALF_TILE_WIDTH = TILE_WIDTH / 2.0, QUARTER_TILE_WIDTH = TILE_WIDTH / 4.0;
-	public static final double CS_TO_CENTER = 14.7, US_TO_CENTER = 20.1,
-			BUMPER_TO_CENTER = 9.1;
-	public static final double TRACK = 11.05, WHEEL_RADIUS = 2.03,
-			LEFT_WHEEL_RADIUS = WHEEL_RADIUS,
-			RIGHT_WHEEL_RADIUS = WHEEL_RADIUS;
-
-	public static final int ODOMETER_PERIOD = 25; // odometer update period, in
-													// ms
-	public static final int DISPLAY_PERIOD = 250;
-	public static final double BAND_CENTER = 20.0;
-	public static final double NAVIGATION_POSITION_BANDWIDTH = 2.5,
-			NAVIGATION_HEADING_BANDWIDTH = 0.14;
-
-	// Geometry
-	public static Rectangle2D builderZone;
-	public static Rectangle2D collectorZone;
-	public static Rectangle2D mapWithoutWalls;
-	public static Point2D.Double mapCenter;
-	public static Point2D.Double searchPoint;
-	public static Point2D.Double stackPoint;
-	public static Point2D.Double odoCorrectionPoint;
-
-	// Motors
-	private static final String LEFT_MOTOR_PORT = "C";
-	public static final EV3LargeRegulatedMotor leftMotor;
-	private static final String RIGHT_MOTOR_PORT = "D";
-	public static final EV3LargeRegulatedMotor rightMotor;
-	private static final String GRAB_MOTOR_PORT = "B";
-	public static final EV3LargeRegulatedMotor grabMotor;
-	private static final String LIFT_MOTOR_PORT = "A";
-	public static final EV3LargeRegulatedMotor liftMotor;
-
-	// Motor Constants
-	public static final int SPEED_FORWARD = 200, SPEED_TURNING_FAST = 140,
-			SPEED_TURNING_SLOW = 60;
-	public static final int SPEED_TURNING_MEDIUM = 100, SPEED_SCANNING = 30;
-
-	public static final int SPEED_GRAB = 100, SPEED_LIFT = 300;
-	public static final int SPEED_AVOIDING_MIN = 50,
-			SPEED_AVOIDING_MAX = 200,
-			SPEED_AVOIDING_INBETWEEN = (SPEED_AVOIDING_MIN + SPEED_AVOIDING_MAX) / 2;
-	public static final int ACCELERATION_FAST = 4000,
-			ACCELERATION_MEDIUM = 700, ACCELERATION_SMOOTH = 400;
-
-	// Ultrasonic sensors
-	private static final String US_FRONT_PORT = "S1";
-	private static final SampleProvider usFront;
-	private static final float[] usDataFront;
-	private static final int US_FRONT_NUM_SAMPLES = 15;
-	private static final int US_FRONT_SAMPLE_DELAY = 10;
-	public static float US_FRONT_CLIP = 100;
-
-	private static final String US_SIDE_PORT = "S3";
-	private static final SampleProvider usSide;
-	private static final float[] usDataSide;
-	private static final int US_SIDE_NUM_SAMPLES = US_FRONT_NUM_SAMPLES;
-	private static final int US_SIDE_SAMPLE_DELAY = US_FRONT_SAMPLE_DELAY;
-	public static float US_SIDE_CLIP = US_FRONT_CLIP;
-
-	// Color sensors
-	private static final String CS_FRONT_PORT = "S2";
-	private static final SampleProvider csFront;
-	private static final float[] csDataFront;
-	private static final int CS_FRONT_NUM_SAMPLES = US_FRONT_NUM_SAMPLES;
-
-	private static final String CS_DOWN_PORT = "S4";
-	private static final SampleProvider csDown;
-	private static final float[] csDataDown;
-	private static final int CS_DOWN_NUM_SAMPLES = US_FRONT_NUM_SAMPLES;
-
-	// Threads
-	public static boolean isLocalizing = true;
-	public static int towerHeight = 0;
-	public static int liftPosition = 0;
-	public static boolean isHoldingBlock = false;
-	public static boolean isSearching = false;
-	public static int searchStep = 0;
-	public static int TIME_LEFT = (270 * 1000);
-	public static double cornerX, cornerY;
-
-	// LCD
-	public static final TextLCD lcd;
-
-	// Dummy variable to force initialization
-	public static boolean initialize;
-
-	// Initializes resources
-	// ENSURE SENSORS AND MOTORS ARE CORRECTED PROPERLY
-	// There is no reasonably easy way to tell if correct
-	// sensors are attached to the correct ports
-	/**
-	 * Initializes resources. Ensure sensors and motors are corrected properly.
-	 */
-	static {
-		// --------------------------Motors-------------------------
-
-		System.out.println("L Motor-" + LEFT_MOTOR_PORT);
-		leftMotor = new EV3LargeRegulatedMotor(LocalEV3.get().getPort(
-				LEFT_MOTOR_PORT));
-
-		System.out.println("R Motor-" + RIGHT_MOTOR_PORT);
-		rightMotor = new EV3LargeRegulatedMotor(LocalEV3.get().getPort(
-				RIGHT_MOTOR_PORT));
-
-		System.out.println("Grab Motor-" + GRAB_MOTOR_PORT);
-		grabMotor = new EV3LargeRegulatedMotor(LocalEV3.get().getPort(
-				GRAB_MOTOR_PORT));
-
-		System.out.println("Lift Motor-" + LIFT_MOTOR_PORT);
-		liftMotor = new EV3LargeRegulatedMotor(LocalEV3.get().getPort(
-				LIFT_MOTOR_PORT));
-
-		// ------------------------US Sensors------------------------
-
-		System.out.println("US Front-" + US_FRONT_PORT);
-		usFront = (new EV3UltrasonicSensor(LocalEV3.get()
-				.getPort(US_FRONT_PORT))).getMode("Distance");
-		usDataFront = new float[usFront.sampleSize() * US_FRONT_NUM_SAMPLES];
-
-		System.out.println("US Side-" + US_SIDE_PORT);
-		usSide = (new EV3UltrasonicSensor(LocalEV3.get().getPort(US_SIDE_PORT)))
-				.getMode("Distance");
-		usDataSide = new float[usSide.sampleSize() * US_SIDE_NUM_SAMPLES];
-
-		// -----------------------Color Sensors-----------------------
-
-		System.out.println("CS Front-" + CS_FRONT_PORT);
-		csFront = (new EV3ColorSensor(LocalEV3.get().getPort(CS_FRONT_PORT)))
-				.getMode("RGB");
-		csDataFront = new float[csFront.sampleSize() * CS_FRONT_NUM_SAMPLES];
-
-		System.out.println("CS Down-" + CS_DOWN_PORT);
-		csDown = (new EV3ColorSensor(LocalEV3.get().getPort(CS_DOWN_PORT)))
-				.getMode("Red");
-		csDataDown = new float[csDown.sampleSize() * CS_DOWN_NUM_SAMPLES];
-
-		// ---------------------------LCD---------------------------
-		lcd = LocalEV3.get().getTextLCD();
-
-		// lcd.clear() does not work
-		// print 8 blank lines
-		for (int i = 0; i < 8; i++)
-			System.out.println();
-
-		lcd.drawString("Ready", 0, 0);
-		Sound.beep();
-
-	}
-
-	/**
-	 * Fetch data from the front ultrasonic sensor.
-	 * @return Returns the distance in cm.
-	 */
-	public static float getFrontUSRawData() {
-		float[] singleSample = new float[usFront.sampleSize()];
-		usFront.fetchSample(singleSample, 0);
-		return singleSample[0];
-	}
-
-	/**
-	 * Fetch data from the front ultrasonic sensor applying a median filter. It fetches a number of samples, sort the array of 
-	 * samples and returns the median value of the array.
-	 * @return Returns the median value of the array of samples.
-	 */
-	public static float getFrontUSData() {
-
-		// Populate the array with samples (with a delay between each sample)
-		for (int i = 0; i < US_FRONT_NUM_SAMPLES; i++) {
-			usFront.fetchSample(usDataFront, i);
-			Delay.msDelay(US_FRONT_SAMPLE_DELAY);
-		}
-
-		// Sort samples
-		Arrays.sort(usDataFront);
-
-		// Acquire median from middle of array and scale up by 100
-		// to get value in centimeters
-		float median = usDataFront[usDataFront.length / 2] * 100;
-
-		if (median > US_FRONT_CLIP)
-			median = US_FRONT_CLIP;
-
-		return median;
-	}
-
-	/**
-	 * Fetch data from the side ultrasonic sensor.
-	 * @return Returns the distance in cm.
-	 */
-	public static float getSideUSRawData() {
-		float[] singleSample = new float[usSide.sampleSize()];
-		usSide.fetchSample(singleSample, 0);
-		return singleSample[0];
-	}
-
-	/**
-	 * Fetch data from the side ultrasonic sensor applying a median filter. It fetches a number of samples, sort the array of 
-	 * samples and returns the median value of the array.
-	 * @return Returns the median value of the array of samples.
-	 */
-	public static float getSideUSData() {
-		// Populate the array with samples (with a delay between each sample)
-		for (int i = 0; i < US_SIDE_NUM_SAMPLES; i++) {
-			usSide.fetchSample(usDataSide, i);
-			Delay.msDelay(US_SIDE_SAMPLE_DELAY);
-		}
-
-		// Sort samples
-		Arrays.sort(usDataSide);
-
-		// Acquire median from middle of array and scale up by 100
-		// to get value in centimeters
-		float median = usDataSide[usDataSide.length / 2] * 100;
-
-		if (median > US_SIDE_CLIP)
-			median = US_SIDE_CLIP;
-
-		return median;
-	}
-
-	/**
-	 * Fetch the RGB values of the front color sensor.
-	 * @return Return the array of RGB values.
-	 */
-	public static float[] getColorRGB() {
-		// for(int i = 0; i < CS_FRONT_NUM_SAMPLES; i++)
-		// csFrontFilter.fetchSample(csDataFront, 0);
-		csFront.fetchSample(csDataFront, 0);
-		return csDataFront;
-	}
-
-	/**
-	 * Fetch the red value from the down facing color sensor.
-	 * @return Return the red value.
-	 */
-	public static float getDownCSData() {
-		csDown.fetchSample(csDataDown, 0);
-
-		return csDataDown[0];
-	}
-	
+package DPM_TEAM04;
+
+import java.io.File;
+import java.util.HashMap;
+
+import DPM_TEAM04.odometry.OdometryIntegrator;
+import DPM_TEAM04.sensing.BlockClassifier;
+import DPM_TEAM04.sensing.ClipFilter;
+import DPM_TEAM04.sensing.FilterPipeline;
+import DPM_TEAM04.sensing.FilterStage;
+import DPM_TEAM04.sensing.MedianFilter;
+import DPM_TEAM04.sensing.UltrasonicPoller;
+import DPM_TEAM04.sensing.UltrasonicScheduler;
+import lejos.hardware.Sound;
+import lejos.hardware.ev3.LocalEV3;
+import lejos.hardware.lcd.TextLCD;
+import lejos.hardware.motor.EV3LargeRegulatedMotor;
+import lejos.hardware.sensor.EV3ColorSensor;
+import lejos.hardware.sensor.EV3UltrasonicSensor;
+import lejos.robotics.SampleProvider;
+import lejos.robotics.geometry.Point2D;
+import lejos.robotics.geometry.Rectangle2D;
+
+/**
+ * This class contains all resources (Motors, Sensors, Filters, Display) and all
+ * constants required for operation. Motors are initialized (concurrently) once
+ * this class is loaded by the JVM, sensors are initialized on first use or in
+ * the background with {@code devices.initializeAll()}
+ * 
+ * Sensor data is also acquired through this class
+ * 
+ * @author Kareem Halabi, Alexis Giguere-Joannette, Tristan Toupin
+ * @version 3.0
+ */
+public class Resources {
+
+	// Wifi
+
+	public static final String SERVER_IP = "192.168.2.3";
+	public static final int TEAM_NUMBER = 4;
+	public static boolean isBuilder;
+	public static int startingCorner;
+	public static HashMap<String, Integer> wifiData;
+
+	// MAP
+	public static final int MAP_DIMENSION = 12; // 12 X 12 tiles
+
+	// Distance Constants
+	public static final double TILE_WIDTH = 30.48,
+			HALF_TILE_WIDTH = TILE_WIDTH / 2.0, QUARTER_TILE_WIDTH = TILE_WIDTH / 4.0;
+	public static final double CS_TO_CENTER = 14.7, US_TO_CENTER = 20.1,
+			BUMPER_TO_CENTER = 9.1;
+	// The side ultrasonic sensor seen from the center: distance and angle
+	// from the heading (it looks to the left)
+	public static final double US_SIDE_TO_CENTER = 7.0,
+			US_SIDE_ANGLE = Math.PI / 2.0;
+	// The down color sensor seen from the center: distance and angle from the
+	// heading (negative is clockwise)
+	public static final double CS_DOWN_TO_CENTER = 15.8,
+			CS_DOWN_ANGLE = -34.0 * Math.PI / 180.0;
+	public static final double TRACK = 11.05, WHEEL_RADIUS = 2.03,
+			LEFT_WHEEL_RADIUS = WHEEL_RADIUS,
+			RIGHT_WHEEL_RADIUS = WHEEL_RADIUS;
+
+	public static final double ODOMETER_RATE = 100; // odometer updates per
+													// second
+	public static final int ODOMETER_HISTORY_SIZE = 200; // poses remembered
+	// How the odometer integrates the wheels, FIXED_POINT avoids the software
+	// floating point of the EV3
+	public static final OdometryIntegrator.Mode ODOMETER_INTEGRATION = OdometryIntegrator.Mode.EXACT_ARC;
+	// Localization by fitting lines to the walls of the corner with both
+	// ultrasonic sensors while rotating, at most WALL_FIT_MAX_SWEEP (deg).
+	// Ranges farther than WALL_FIT_MAX_RANGE from the center are left out
+	// (cm). The scan is done if both walls were not seen.
+	public static final boolean WALL_FIT_LOCALIZATION = false;
+	public static final double WALL_FIT_MAX_SWEEP = 270.0,
+			WALL_FIT_MAX_RANGE = 60.0;
+	// Localization with a particle filter during the first scan. The bumps
+	// into the walls are skipped once the particles agree on a pose. Off
+	// until it is shown on the field to be as accurate as the bumps.
+	public static final boolean PARTICLE_LOCALIZATION = false;
+	public static final int LOCALIZATION_PARTICLES = 500;
+	public static final double LOCALIZATION_CELL_SIZE = 2.0; // cm
+	public static final double LOCALIZATION_MIN_SWEEP = Math.PI; // rad
+	public static final double LOCALIZATION_MAX_POSITION_SPREAD = 2.0, // cm
+			LOCALIZATION_MAX_HEADING_SPREAD = 0.05; // rad
+	// Uncertainty of the pose once localized, in cm^2 and rad^2
+	public static final double LOCALIZED_POSITION_VARIANCE = 4.0,
+			LOCALIZED_HEADING_VARIANCE = 0.001;
+	// The odometry is corrected on a grid intersection once the pose is this
+	// uncertain (standard deviations in cm and rad), if the intersection is
+	// close enough (cm)
+	public static final double CORRECTION_MAX_POSITION_DEVIATION = 4.0,
+			CORRECTION_MAX_HEADING_DEVIATION = 0.1,
+			CORRECTION_MAX_DETOUR = TILE_WIDTH;
+	// Tracks the uncertainty of the pose and corrects it with the grid lines
+	// and the front ultrasonic ranges to the walls while the robot moves. Off
+	// until it is validated on the field, the odometry corrections it
+	// schedules are then never needed.
+	public static final boolean ESTIMATOR = false;
+	// Corrects the odometer on every grid line crossed while driving straight,
+	// instead of the estimator correcting it on the lines
+	public static final boolean LINE_CORRECTION = false;
+	public static final int DISPLAY_PERIOD = 250;
+	public static final int SAMPLING_ADJUST_PERIOD = 200; // sensor rates, ms
+	public static final double BAND_CENTER = 20.0;
+	public static final double NAVIGATION_POSITION_BANDWIDTH = 2.5,
+			NAVIGATION_HEADING_BANDWIDTH = 0.14;
+
+	// Geometry
+	public static Rectangle2D builderZone;
+	public static Rectangle2D collectorZone;
+	public static Rectangle2D mapWithoutWalls;
+	public static Point2D.Double mapCenter;
+	public static Point2D.Double searchPoint;
+	public static Point2D.Double stackPoint;
+	public static Point2D.Double odoCorrectionPoint;
+
+	// Motors
+	private static final String LEFT_MOTOR_PORT = "C";
+	public static final EV3LargeRegulatedMotor leftMotor;
+	private static final String RIGHT_MOTOR_PORT = "D";
+	public static final EV3LargeRegulatedMotor rightMotor;
+	private static final String GRAB_MOTOR_PORT = "B";
+	public static final EV3LargeRegulatedMotor grabMotor;
+	private static final String LIFT_MOTOR_PORT = "A";
+	public static final EV3LargeRegulatedMotor liftMotor;
+
+	// Motor Constants
+	public static final int SPEED_FORWARD = 200, SPEED_TURNING_FAST = 140,
+			SPEED_TURNING_SLOW = 60;
+	public static final int SPEED_TURNING_MEDIUM = 100, SPEED_SCANNING = 30;
+
+	public static final int SPEED_GRAB = 100, SPEED_LIFT = 300;
+	public static final int SPEED_AVOIDING_MIN = 50,
+			SPEED_AVOIDING_MAX = 200,
+			SPEED_AVOIDING_INBETWEEN = (SPEED_AVOIDING_MIN + SPEED_AVOIDING_MAX) / 2;
+	public static final int ACCELERATION_FAST = 4000,
+			ACCELERATION_MEDIUM = 700, ACCELERATION_SMOOTH = 400;
+
+	// Ultrasonic sensors
+	private static final String US_FRONT_PORT = "S1";
+	private static final Device<UltrasonicPoller> usFront;
+	private static final int US_FRONT_NUM_SAMPLES = 15;
+	private static final double US_FRONT_RATE = 50; // pings per second
+	public static float US_FRONT_CLIP = 100;
+
+	private static final String US_SIDE_PORT = "S3";
+	private static final Device<UltrasonicPoller> usSide;
+	private static final int US_SIDE_NUM_SAMPLES = US_FRONT_NUM_SAMPLES;
+	private static final double US_SIDE_RATE = US_FRONT_RATE;
+	public static float US_SIDE_CLIP = US_FRONT_CLIP;
+
+	// Window of the short median used by consumers that need fast reactions
+	// (scans while rotating, obstacle detection) instead of the default one
+	public static final int US_FAST_NUM_SAMPLES = 5;
+
+	// Both sensors are pinged one at a time in slots of this length (ms)
+	private static final int US_SLOT_LENGTH = 10;
+	public static final UltrasonicScheduler usScheduler;
+
+	// Color sensors
+	private static final String CS_FRONT_PORT = "S2";
+	private static final Device<SampleProvider> csFront;
+	private static final float[] csDataFront = new float[3]; // RGB
+
+	// Block classification from the front color sensor. The table is written
+	// by the ColorCalibrationTest, the green rule is used until then.
+	public static final String BLOCK_TABLE_FILE = "blockTable.dat";
+	private static final int BLOCK_TABLE_LEVELS = 16;
+	private static final int BLOCK_BURST_SIZE = 5;
+	public static final float BLOCK_MIN_CONFIDENCE = 0.6f;
+	public static final BlockClassifier blockClassifier;
+
+	private static final String CS_DOWN_PORT = "S4";
+	private static final Device<SampleProvider> csDown;
+	private static final float[] csDataDown = new float[1]; // Red
+	private static final FilterStage csDownFilter;
+	public static final int CS_DOWN_SAMPLE_PERIOD = 10; // line detection, ms
+
+	// All devices, used to initialize them concurrently and report their
+	// initialization time
+	public static final DeviceRegistry devices;
+
+	// Threads
+	public static boolean isLocalizing = true;
+	public static int towerHeight = 0;
+	public static int liftPosition = 0;
+	public static boolean isHoldingBlock = false;
+	public static boolean isSearching = false;
+	public static int searchStep = 0;
+	public static int TIME_LEFT = (270 * 1000);
+	public static double cornerX, cornerY;
+
+	// LCD
+	public static final TextLCD lcd;
+
+	// Dummy variable to force initialization
+	public static boolean initialize;
+
+	// Initializes resources
+	// ENSURE SENSORS AND MOTORS ARE CORRECTED PROPERLY
+	// There is no reasonably easy way to tell if correct
+	// sensors are attached to the correct ports
+	/**
+	 * Initializes resources. Ensure sensors and motors are corrected properly.
+	 */
+	static {
+		devices = new DeviceRegistry();
+
+		// --------------------------Motors-------------------------
+
+		// Motors are needed right away by the odometer and the driver, they
+		// are created concurrently. Only constants may be used in create() as
+		// this class is not done initializing.
+
+		Device<EV3LargeRegulatedMotor> leftMotorDevice = new Device<EV3LargeRegulatedMotor>(
+				"L Motor-" + LEFT_MOTOR_PORT) {
+			@Override
+			protected EV3LargeRegulatedMotor create() {
+				return new EV3LargeRegulatedMotor(LocalEV3.get().getPort(
+						LEFT_MOTOR_PORT));
+			}
+		};
+
+		Device<EV3LargeRegulatedMotor> rightMotorDevice = new Device<EV3LargeRegulatedMotor>(
+				"R Motor-" + RIGHT_MOTOR_PORT) {
+			@Override
+			protected EV3LargeRegulatedMotor create() {
+				return new EV3LargeRegulatedMotor(LocalEV3.get().getPort(
+						RIGHT_MOTOR_PORT));
+			}
+		};
+
+		Device<EV3LargeRegulatedMotor> grabMotorDevice = new Device<EV3LargeRegulatedMotor>(
+				"Grab Motor-" + GRAB_MOTOR_PORT) {
+			@Override
+			protected EV3LargeRegulatedMotor create() {
+				return new EV3LargeRegulatedMotor(LocalEV3.get().getPort(
+						GRAB_MOTOR_PORT));
+			}
+		};
+
+		Device<EV3LargeRegulatedMotor> liftMotorDevice = new Device<EV3LargeRegulatedMotor>(
+				"Lift Motor-" + LIFT_MOTOR_PORT) {
+			@Override
+			protected EV3LargeRegulatedMotor create() {
+				return new EV3LargeRegulatedMotor(LocalEV3.get().getPort(
+						LIFT_MOTOR_PORT));
+			}
+		};
+
+		devices.register(leftMotorDevice, rightMotorDevice, grabMotorDevice,
+				liftMotorDevice);
+		devices.initializeAll();
+
+		leftMotor = leftMotorDevice.get();
+		rightMotor = rightMotorDevice.get();
+		grabMotor = grabMotorDevice.get();
+		liftMotor = liftMotorDevice.get();
+
+		// ------------------------US Sensors------------------------
+
+		// Each sensor is owned by its poller, readers only get the latest
+		// filtered value. The scheduler interleaves the pings of the sensors.
+		usScheduler = new UltrasonicScheduler(US_SLOT_LENGTH);
+		usScheduler.start();
+
+		usFront = new Device<UltrasonicPoller>("US Front-" + US_FRONT_PORT) {
+			@Override
+			protected UltrasonicPoller create() {
+				UltrasonicPoller poller = new UltrasonicPoller(
+						(new EV3UltrasonicSensor(LocalEV3.get().getPort(
+								US_FRONT_PORT))).getMode("Distance"),
+						new FilterPipeline(new MedianFilter(
+								US_FRONT_NUM_SAMPLES), new ClipFilter(0,
+								US_FRONT_CLIP)));
+				usScheduler.addSensor(poller, US_FRONT_RATE);
+				return poller;
+			}
+		};
+
+		usSide = new Device<UltrasonicPoller>("US Side-" + US_SIDE_PORT) {
+			@Override
+			protected UltrasonicPoller create() {
+				UltrasonicPoller poller = new UltrasonicPoller(
+						(new EV3UltrasonicSensor(LocalEV3.get().getPort(
+								US_SIDE_PORT))).getMode("Distance"),
+						new FilterPipeline(new MedianFilter(
+								US_SIDE_NUM_SAMPLES), new ClipFilter(0,
+								US_SIDE_CLIP)));
+				usScheduler.addSensor(poller, US_SIDE_RATE);
+				return poller;
+			}
+		};
+
+		// -----------------------Color Sensors-----------------------
+
+		csFront = new Device<SampleProvider>("CS Front-" + CS_FRONT_PORT) {
+			@Override
+			protected SampleProvider create() {
+				return (new EV3ColorSensor(LocalEV3.get()
+						.getPort(CS_FRONT_PORT))).getMode("RGB");
+			}
+		};
+
+		csDown = new Device<SampleProvider>("CS Down-" + CS_DOWN_PORT) {
+			@Override
+			protected SampleProvider create() {
+				return (new EV3ColorSensor(LocalEV3.get().getPort(CS_DOWN_PORT)))
+						.getMode("Red");
+			}
+		};
+		// Line detection thresholds were tuned on unfiltered samples
+		csDownFilter = new FilterPipeline();
+
+		blockClassifier = BlockClassifier.load(BLOCK_TABLE_LEVELS,
+				BLOCK_BURST_SIZE, new File(BLOCK_TABLE_FILE));
+
+		devices.register(usFront, usSide, csFront, csDown);
+
+		// ---------------------------LCD---------------------------
+		lcd = LocalEV3.get().getTextLCD();
+
+		// lcd.clear() does not work
+		// print 8 blank lines
+		for (int i = 0; i < 8; i++)
+			System.out.println();
+
+		lcd.drawString("Ready", 0, 0);
+		Sound.beep();
+
+	}
+
+	/**
+	 * Get the latest reading of the front ultrasonic sensor. Does not wait
+	 * for the sensor and does not allocate.
+	 * @return Returns the distance in m.
+	 */
+	public static float getFrontUSRawData() {
+		return usFront.get().getRawDistance();
+	}
+
+	/**
+	 * Get the latest median filtered distance of the front ultrasonic sensor.
+	 * The median is computed by the poller thread over the last samples, so
+	 * this never waits for the sensor. Consumers that need a faster reaction
+	 * can attach their own filter to {@link #getFrontUSPoller()}.
+	 * @return Returns the median distance in cm.
+	 */
+	public static float getFrontUSData() {
+		return usFront.get().getDistance();
+	}
+
+	/**
+	 * Wait for the next ping of the front ultrasonic sensor and return the
+	 * updated median filtered distance. Use this in loops that need every
+	 * new reading once.
+	 * @return Returns the median distance in cm.
+	 */
+	public static float awaitFrontUSData() {
+		return awaitFrontUSData(false);
+	}
+
+	/**
+	 * Wait for new pings of the front ultrasonic sensor and return the updated
+	 * median filtered distance.
+	 * @param fullWindow If true, waits until the whole median window was
+	 *            refilled, so the reading only contains samples taken after
+	 *            this call (e.g. once the robot stopped turning).
+	 * @return Returns the median distance in cm.
+	 */
+	public static float awaitFrontUSData(boolean fullWindow) {
+		return usFront.get().awaitDistance(fullWindow ? US_FRONT_NUM_SAMPLES
+				: 1);
+	}
+
+	/**
+	 * Get the time at which the latest front ultrasonic reading was taken.
+	 * @return Returns the {@link System#nanoTime()} of the latest ping.
+	 */
+	public static long getFrontUSTimestamp() {
+		return usFront.get().getTimestamp();
+	}
+
+	/**
+	 * Get the poller that owns the front ultrasonic sensor, e.g. to listen to
+	 * every sample it publishes.
+	 * @return Returns the front ultrasonic poller.
+	 */
+	public static UltrasonicPoller getFrontUSPoller() {
+		return usFront.get();
+	}
+
+	/**
+	 * Get the latest reading of the side ultrasonic sensor. Does not wait
+	 * for the sensor and does not allocate.
+	 * @return Returns the distance in m.
+	 */
+	public static float getSideUSRawData() {
+		return usSide.get().getRawDistance();
+	}
+
+	/**
+	 * Get the latest median filtered distance of the side ultrasonic sensor.
+	 * The median is computed by the poller thread over the last samples, so
+	 * this never waits for the sensor.
+	 * @return Returns the median distance in cm.
+	 */
+	public static float getSideUSData() {
+		return usSide.get().getDistance();
+	}
+
+	/**
+	 * Wait for the next ping of the side ultrasonic sensor and return the
+	 * updated median filtered distance.
+	 * @return Returns the median distance in cm.
+	 */
+	public static float awaitSideUSData() {
+		return awaitSideUSData(false);
+	}
+
+	/**
+	 * Wait for new pings of the side ultrasonic sensor and return the updated
+	 * median filtered distance.
+	 * @param fullWindow If true, waits until the whole median window was
+	 *            refilled, so the reading only contains samples taken after
+	 *            this call.
+	 * @return Returns the median distance in cm.
+	 */
+	public static float awaitSideUSData(boolean fullWindow) {
+		return usSide.get().awaitDistance(fullWindow ? US_SIDE_NUM_SAMPLES
+				: 1);
+	}
+
+	/**
+	 * Get the time at which the latest side ultrasonic reading was taken.
+	 * @return Returns the {@link System#nanoTime()} of the latest ping.
+	 */
+	public static long getSideUSTimestamp() {
+		return usSide.get().getTimestamp();
+	}
+
+	/**
+	 * Get the poller that owns the side ultrasonic sensor.
+	 * @return Returns the side ultrasonic poller.
+	 */
+	public static UltrasonicPoller getSideUSPoller() {
+		return usSide.get();
+	}
+
+	/**
+	 * Fetch the RGB values of the front color sensor. The returned array is a
+	 * copy that belongs to the caller, use {@link #getColorRGB(float[])} in
+	 * loops to avoid allocating.
+	 * @return Return a new array of RGB values.
+	 */
+	public static float[] getColorRGB() {
+		float[] rgb = new float[3];
+		getColorRGB(rgb);
+		return rgb;
+	}
+
+	/**
+	 * Fetch the RGB values of the front color sensor into a caller supplied
+	 * buffer. All three values always come from the same sample. Does not
+	 * allocate.
+	 * @param rgb Array of at least 3 elements that receives the R, G and B
+	 *            values.
+	 * @return Return {@code rgb}.
+	 */
+	public static float[] getColorRGB(float[] rgb) {
+		synchronized (csDataFront) {
+			csFront.get().fetchSample(csDataFront, 0);
+			rgb[0] = csDataFront[0];
+			rgb[1] = csDataFront[1];
+			rgb[2] = csDataFront[2];
+		}
+		return rgb;
+	}
+
+	/**
+	 * Classify the object in front of the front color sensor. A second burst
+	 * of samples is taken if the first one is not conclusive.
+	 * @return Return true if the object is a styrofoam block.
+	 */
+	public static boolean isBlockInFront() {
+		BlockClassifier.Type type = blockClassifier.classify();
+		if (blockClassifier.getConfidence() < BLOCK_MIN_CONFIDENCE)
+			type = blockClassifier.classify();
+		return type == BlockClassifier.Type.BLOCK;
+	}
+
+	/**
+	 * Fetch the red value from the down facing color sensor, passed through
+	 * the filter of that sensor. Does not allocate.
+	 * @return Return the red value.
+	 */
+	public static float getDownCSData() {
+		synchronized (csDataDown) {
+			csDown.get().fetchSample(csDataDown, 0);
+			return csDownFilter.filter(csDataDown[0]);
+		}
+	}
+	
 }
\ No newline at end of file
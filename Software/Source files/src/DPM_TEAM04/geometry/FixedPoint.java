@@ -0,0 +1,207 @@
+package DPM_TEAM04.geometry;
+
+/**
+ * Fixed-point math for the EV3, whose CPU has no floating point unit: every
+ * double operation is emulated in software, and Math.sin, Math.cos and
+ * Math.atan2 cost many of them.
+ *
+ * Lengths are Q16.16 ints (16 bits of fraction, up to 32767 cm with a
+ * resolution of 1.5e-5 cm). Angles are binary angles: a whole int is one
+ * turn, so angles wrap around by themselves on overflow and keep a
+ * resolution of 1.5e-9 rad. Sines and arc tangents come from lookup tables
+ * with linear interpolation, only integer operations are used.
+ *
+ * @author team04
+ *
+ */
+public final class FixedPoint {
+
+	/** 1.0 in Q16.16 */
+	public static final int ONE = 1 << 16;
+
+	// Binary angle of a radian: 2^32 / 2pi
+	private static final double ANGLE_PER_RAD = 4294967296.0 / (2 * Math.PI);
+	private static final long ANGLE_PER_RAD_LONG = Math.round(ANGLE_PER_RAD);
+
+	// Sine of a full turn in 4096 steps, in Q16.16, with the first value
+	// repeated at the end so interpolation needs no wrap
+	private static final int SINE_BITS = 12;
+	private static final int[] SINE = new int[(1 << SINE_BITS) + 1];
+
+	// Arc tangent of ratios from 0 to 1 in 256 steps, as binary angles
+	private static final int ATAN_BITS = 8;
+	private static final int[] ATAN = new int[(1 << ATAN_BITS) + 1];
+
+	/** Binary angle of a quarter turn */
+	public static final int QUARTER_TURN = 1 << 30;
+
+	static {
+		for (int i = 0; i < SINE.length; i++)
+			SINE[i] = (int) Math.round(Math.sin(2 * Math.PI * i
+					/ (1 << SINE_BITS))
+					* ONE);
+		for (int i = 0; i < ATAN.length; i++)
+			ATAN[i] = (int) Math.round(Math.atan((double) i
+					/ (1 << ATAN_BITS))
+					* ANGLE_PER_RAD);
+	}
+
+	private FixedPoint() {
+	}
+
+	/**
+	 * @param value
+	 *            a real number
+	 * @return the value in Q16.16
+	 */
+	public static int toFixed(double value) {
+		return (int) Math.round(value * ONE);
+	}
+
+	/**
+	 * @param value
+	 *            a Q16.16 number
+	 * @return the value as a double
+	 */
+	public static double toDouble(int value) {
+		return value / (double) ONE;
+	}
+
+	/**
+	 * Multiplies two Q16.16 numbers
+	 */
+	public static int mul(int a, int b) {
+		return (int) (((long) a * b) >> 16);
+	}
+
+	/**
+	 * Divides two Q16.16 numbers
+	 */
+	public static int div(int a, int b) {
+		return (int) (((long) a << 16) / b);
+	}
+
+	/**
+	 * @param rad
+	 *            an angle in rad
+	 * @return the binary angle
+	 */
+	public static int toAngle(double rad) {
+		// Through a long so angles over half a turn wrap around
+		return (int) (long) Math.floor(rad * ANGLE_PER_RAD);
+	}
+
+	/**
+	 * Converts a Q16.16 angle in rad to a binary angle without floating
+	 * point. Angles must be under 16000 turns.
+	 *
+	 * @param rad
+	 *            the angle in rad, in Q16.16
+	 * @return the binary angle
+	 */
+	public static int fixedRadToAngle(int rad) {
+		return (int) ((rad * ANGLE_PER_RAD_LONG) >> 16);
+	}
+
+	/**
+	 * @param angle
+	 *            a binary angle
+	 * @return the angle in rad, -pi <= angle < pi
+	 */
+	public static double toRad(int angle) {
+		return angle / ANGLE_PER_RAD;
+	}
+
+	/**
+	 * @param angle
+	 *            a binary angle
+	 * @return the angle in rad, 0 <= angle < 2pi
+	 */
+	public static double toPositiveRad(int angle) {
+		return (angle & 0xFFFFFFFFL) / ANGLE_PER_RAD;
+	}
+
+	/**
+	 * @param angle
+	 *            a binary angle
+	 * @return the sine of the angle in Q16.16
+	 */
+	public static int sin(int angle) {
+		int index = angle >>> (32 - SINE_BITS);
+		// The next 16 bits interpolate between two entries
+		int fraction = (angle >>> (16 - SINE_BITS)) & 0xFFFF;
+		int low = SINE[index];
+		return low + (int) (((long) (SINE[index + 1] - low) * fraction) >> 16);
+	}
+
+	/**
+	 * @param angle
+	 *            a binary angle
+	 * @return the cosine of the angle in Q16.16
+	 */
+	public static int cos(int angle) {
+		return sin(angle + QUARTER_TURN);
+	}
+
+	/**
+	 * Angle of a vector, as Math.atan2
+	 *
+	 * @param y
+	 *            y component, in any fixed-point format
+	 * @param x
+	 *            x component, in the same format
+	 * @return the binary angle, 0 for a null vector
+	 */
+	public static int atan2(int y, int x) {
+		if (x == 0 && y == 0)
+			return 0;
+
+		long absX = Math.abs((long) x), absY = Math.abs((long) y);
+
+		// Angle in the first octant, from the ratio of the smaller component
+		// to the larger one
+		boolean swapped = absY > absX;
+		long ratio = swapped ? (absX << 16) / absY : (absY << 16) / absX;
+		int index = (int) (ratio >>> (16 - ATAN_BITS));
+		int fraction = (int) (ratio & ((1 << (16 - ATAN_BITS)) - 1));
+		int angle = ATAN[index];
+		if (index < (1 << ATAN_BITS))
+			angle += (int) (((long) (ATAN[index + 1] - angle) * fraction) >> (16 - ATAN_BITS));
+
+		// Back to the right octant
+		if (swapped)
+			angle = QUARTER_TURN - angle;
+		if (x < 0)
+			angle = 2 * QUARTER_TURN - angle;
+		if (y < 0)
+			angle = -angle;
+		return angle;
+	}
+
+	/**
+	 * @param value
+	 *            a positive Q16.16 number
+	 * @return the square root in Q16.16
+	 */
+	public static int sqrt(int value) {
+		if (value <= 0)
+			return 0;
+
+		// Integer square root of value * 2^16, one bit at a time
+		long remainder = (long) value << 16;
+		long root = 0;
+		long bit = 1L << 46;
+		while (bit > remainder)
+			bit >>= 2;
+		while (bit != 0) {
+			if (remainder >= root + bit) {
+				remainder -= root + bit;
+				root = (root >> 1) + bit;
+			} else {
+				root >>= 1;
+			}
+			bit >>= 2;
+		}
+		return (int) root;
+	}
+}
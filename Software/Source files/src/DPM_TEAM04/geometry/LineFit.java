@@ -0,0 +1,142 @@
+package DPM_TEAM04.geometry;
+
+/**
+ * Least-squares line through points added one at a time. Only the sums of
+ * the coordinates and of their products are kept, so adding a point or
+ * merging two fits is O(1) and nothing is allocated.
+ *
+ * The fit minimizes the perpendicular distances of the points to the line
+ * (total least squares), so walls of any orientation fit equally well. The
+ * line is given in normal form: the points p on the line satisfy
+ * p . (cos(normal), sin(normal)) = distance.
+ *
+ * @author team04
+ *
+ */
+public class LineFit {
+
+	private int count;
+	private double sumX, sumY, sumXX, sumXY, sumYY;
+
+	// Line of the last fit, recomputed when points were added since
+	private boolean isStale;
+	private double normal, distance, variance, length;
+
+	/**
+	 * Adds a point to the fit
+	 */
+	public void add(double x, double y) {
+		count++;
+		sumX += x;
+		sumY += y;
+		sumXX += x * x;
+		sumXY += x * y;
+		sumYY += y * y;
+		isStale = true;
+	}
+
+	/**
+	 * Adds all the points of another fit to this one
+	 */
+	public void merge(LineFit other) {
+		count += other.count;
+		sumX += other.sumX;
+		sumY += other.sumY;
+		sumXX += other.sumXX;
+		sumXY += other.sumXY;
+		sumYY += other.sumYY;
+		isStale = true;
+	}
+
+	/**
+	 * Makes this fit a copy of another one
+	 */
+	public void set(LineFit other) {
+		clear();
+		merge(other);
+	}
+
+	/**
+	 * Removes all the points
+	 */
+	public void clear() {
+		count = 0;
+		sumX = sumY = sumXX = sumXY = sumYY = 0;
+		isStale = true;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the direction of the normal of the line in rad, -pi < normal
+	 *         <= pi
+	 */
+	public double getNormal() {
+		fit();
+		return normal;
+	}
+
+	/**
+	 * @return the signed distance from the origin to the line along the
+	 *         normal, in cm
+	 */
+	public double getDistance() {
+		fit();
+		return distance;
+	}
+
+	/**
+	 * @return the root mean square distance of the points to the line, in cm
+	 */
+	public double getResidual() {
+		fit();
+		return Math.sqrt(variance);
+	}
+
+	/**
+	 * @return the length of the line covered by the points, in cm, as if
+	 *         they were spread evenly along it
+	 */
+	public double getLength() {
+		fit();
+		return length;
+	}
+
+	/**
+	 * @return the signed distance from a point to the line, positive on the
+	 *         side the normal points to
+	 */
+	public double distanceTo(double x, double y) {
+		fit();
+		return x * Math.cos(normal) + y * Math.sin(normal) - distance;
+	}
+
+	private void fit() {
+		if (!isStale)
+			return;
+		isStale = false;
+		if (count < 2) {
+			normal = distance = variance = length = 0;
+			return;
+		}
+
+		double meanX = sumX / count, meanY = sumY / count;
+		double xx = sumXX / count - meanX * meanX;
+		double xy = sumXY / count - meanX * meanY;
+		double yy = sumYY / count - meanY * meanY;
+
+		// The line follows the main axis of the points, the variance across it
+		// is the smallest eigenvalue of their covariance
+		normal = 0.5 * Math.atan2(2 * xy, xx - yy) + Math.PI / 2;
+		if (normal > Math.PI)
+			normal -= 2 * Math.PI;
+		distance = meanX * Math.cos(normal) + meanY * Math.sin(normal);
+		double half = (xx - yy) / 2;
+		double root = Math.sqrt(half * half + xy * xy);
+		variance = Math.max(0, (xx + yy) / 2 - root);
+		// Points spread evenly over a length l have a variance of l^2 / 12
+		length = Math.sqrt(12 * ((xx + yy) / 2 + root));
+	}
+}
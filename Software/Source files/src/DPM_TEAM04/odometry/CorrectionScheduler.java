@@ -0,0 +1,131 @@
+package DPM_TEAM04.odometry;
+
+import static DPM_TEAM04.Resources.HALF_TILE_WIDTH;
+import static DPM_TEAM04.Resources.MAP_DIMENSION;
+import static DPM_TEAM04.Resources.QUARTER_TILE_WIDTH;
+import static DPM_TEAM04.Resources.TILE_WIDTH;
+import DPM_TEAM04.geometry.Coordinate;
+import DPM_TEAM04.geometry.CoordinateSystem;
+import DPM_TEAM04.navigation.Driver;
+
+/**
+ * Decides when the robot should stop for an {@link OdometryCorrection}. A
+ * correction costs a detour to a grid intersection and a full spin, so it is
+ * only done when the uncertainty of the pose tracked by the
+ * {@link PoseEstimator} goes over a bound, and when an intersection is close
+ * enough to be worth the detour.
+ *
+ * @author team04
+ *
+ */
+public class CorrectionScheduler {
+
+	private final double maxPositionDeviation, maxHeadingDeviation;
+	private final double maxDetour;
+	private final Odometer odometer;
+	private final OdometryCorrection correction;
+	private int corrections, skipped;
+
+	// Intersection found by the last call to findIntersection()
+	private double crossX, crossY;
+	// Distance from the intersection to the start of a correction, along x
+	// and y, as in the builder zone
+	private static final double START_OFFSET = HALF_TILE_WIDTH + 1.5
+			* QUARTER_TILE_WIDTH;
+
+	/**
+	 * Creates a new CorrectionScheduler
+	 *
+	 * @param maxPositionDeviation
+	 *            standard deviation of the position (cm) over which the
+	 *            odometer is corrected
+	 * @param maxHeadingDeviation
+	 *            standard deviation of the heading (rad) over which the
+	 *            odometer is corrected
+	 * @param maxDetour
+	 *            largest distance (cm) the robot drives to the start of a
+	 *            correction
+	 */
+	public CorrectionScheduler(double maxPositionDeviation,
+			double maxHeadingDeviation, double maxDetour) {
+		this.maxPositionDeviation = maxPositionDeviation;
+		this.maxHeadingDeviation = maxHeadingDeviation;
+		this.maxDetour = maxDetour;
+		this.odometer = Odometer.getOdometer();
+		this.correction = new OdometryCorrection();
+	}
+
+	/**
+	 * Checks if the pose is uncertain enough to need a correction. Without an
+	 * estimator there is nothing to tell, and no correction is needed.
+	 *
+	 * @return true if the uncertainty of the pose is over a bound
+	 */
+	public boolean isCorrectionNeeded() {
+		return odometer.getPositionDeviation() > maxPositionDeviation
+				|| odometer.getHeadingDeviation() > maxHeadingDeviation;
+	}
+
+	/**
+	 * Corrects the odometer if it is needed and an intersection is close
+	 * enough. Blocks until the correction is done.
+	 *
+	 * @return true if the odometer was corrected
+	 */
+	public boolean correctIfNeeded() {
+		if (!isCorrectionNeeded())
+			return false;
+
+		Pose pose = odometer.getPose();
+		findIntersection(pose.getX(), pose.getY());
+		double startX = crossX - START_OFFSET, startY = crossY - START_OFFSET;
+		if (Math.hypot(startX - pose.getX(), startY - pose.getY()) > maxDetour) {
+			skipped++;
+			return false;
+		}
+
+		// Same moves as the correction in the builder zone: from the bottom
+		// left tile, drive up to the lines and spin over the cross
+		Driver driver = Driver.getDriver();
+		driver.travelTo(new Coordinate(CoordinateSystem.CARTESIAN, startX,
+				startY));
+		driver.turnTo(45, CoordinateSystem.POLAR_DEG, false);
+		correction.prepareCorrection();
+		driver.turnTo(-115, CoordinateSystem.POLAR_DEG, false);
+		driver.rotate(360, CoordinateSystem.POLAR_DEG, true);
+
+		if (!correction.doCorrection(crossX, crossY))
+			return false;
+		corrections++;
+		return true;
+	}
+
+	/**
+	 * Finds the intersection whose correction starts closest to a position.
+	 * Intersections next to the walls are left out, the robot could not spin
+	 * there. The intersection is kept in crossX and crossY.
+	 */
+	private void findIntersection(double x, double y) {
+		crossX = clampLine(Math.rint((x + START_OFFSET) / TILE_WIDTH));
+		crossY = clampLine(Math.rint((y + START_OFFSET) / TILE_WIDTH));
+	}
+
+	private static double clampLine(double line) {
+		return Math.max(1, Math.min(MAP_DIMENSION - 2, line)) * TILE_WIDTH;
+	}
+
+	/**
+	 * @return the number of corrections done
+	 */
+	public int getCorrections() {
+		return corrections;
+	}
+
+	/**
+	 * @return the number of corrections needed but skipped because no
+	 *         intersection was close enough
+	 */
+	public int getSkipped() {
+		return skipped;
+	}
+}
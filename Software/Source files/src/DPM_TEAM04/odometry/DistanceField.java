@@ -0,0 +1,189 @@
+package DPM_TEAM04.odometry;
+
+import static DPM_TEAM04.Resources.MAP_DIMENSION;
+import static DPM_TEAM04.Resources.TILE_WIDTH;
+
+/**
+ * Distance from any point of the field to the closest wall or obstacle,
+ * precomputed on a grid so a lookup costs the same whatever the map
+ * contains. Points outside of the grid are beyond the walls, their distance
+ * to the grid is returned instead.
+ *
+ * Distances inside the grid start as the exact distance to the closest
+ * wall. Obstacles added afterwards are spread to the other cells with a two
+ * pass chamfer transform (steps of 1 and sqrt 2 cells), which overestimates
+ * the true distance by at most a few percent.
+ *
+ * @author team04
+ *
+ */
+public class DistanceField {
+
+	private static final float DIAGONAL = (float) Math.sqrt(2.0);
+
+	private final double minX, minY, maxX, maxY;
+	private final double cellSize;
+	private final int width, height;
+	// Distance in cm at the center of every cell, row by row from minY
+	private final float[] distances;
+
+	/**
+	 * Creates the distance field of a rectangle surrounded by walls
+	 *
+	 * @param minX
+	 *            x position of the left wall in cm
+	 * @param minY
+	 *            y position of the bottom wall in cm
+	 * @param maxX
+	 *            x position of the right wall in cm
+	 * @param maxY
+	 *            y position of the top wall in cm
+	 * @param cellSize
+	 *            side of a cell in cm
+	 */
+	public DistanceField(double minX, double minY, double maxX, double maxY,
+			double cellSize) {
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.cellSize = cellSize;
+		this.width = (int) Math.ceil((maxX - minX) / cellSize);
+		this.height = (int) Math.ceil((maxY - minY) / cellSize);
+		this.distances = new float[width * height];
+
+		for (int j = 0; j < height; j++) {
+			double y = minY + (j + 0.5) * cellSize;
+			double toWallY = Math.min(y - minY, maxY - y);
+			for (int i = 0; i < width; i++) {
+				double x = minX + (i + 0.5) * cellSize;
+				double toWallX = Math.min(x - minX, maxX - x);
+				distances[j * width + i] = (float) Math.max(0,
+						Math.min(toWallX, toWallY));
+			}
+		}
+	}
+
+	/**
+	 * Creates the distance field of the competition field, the origin being
+	 * on the first grid line
+	 *
+	 * @param cellSize
+	 *            side of a cell in cm
+	 * @return the distance field to the walls
+	 */
+	public static DistanceField ofField(double cellSize) {
+		return new DistanceField(-TILE_WIDTH, -TILE_WIDTH,
+				(MAP_DIMENSION - 1) * TILE_WIDTH, (MAP_DIMENSION - 1)
+						* TILE_WIDTH, cellSize);
+	}
+
+	/**
+	 * Marks a round obstacle. Call {@link #propagate()} once all the
+	 * obstacles are added.
+	 *
+	 * @param x
+	 *            x position of the center in cm
+	 * @param y
+	 *            y position of the center in cm
+	 * @param radius
+	 *            radius in cm
+	 */
+	public void addObstacle(double x, double y, double radius) {
+		int firstI = Math.max(0, cellX(x - radius));
+		int lastI = Math.min(width - 1, cellX(x + radius));
+		int firstJ = Math.max(0, cellY(y - radius));
+		int lastJ = Math.min(height - 1, cellY(y + radius));
+
+		for (int j = firstJ; j <= lastJ; j++) {
+			double dy = minY + (j + 0.5) * cellSize - y;
+			for (int i = firstI; i <= lastI; i++) {
+				double dx = minX + (i + 0.5) * cellSize - x;
+				if (dx * dx + dy * dy <= radius * radius)
+					distances[j * width + i] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Spreads the obstacles to the distance of every cell
+	 */
+	public void propagate() {
+		float step = (float) cellSize, diagonal = DIAGONAL * step;
+
+		// Forward pass, from the neighbours already visited
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				int index = j * width + i;
+				float d = distances[index];
+				if (i > 0)
+					d = Math.min(d, distances[index - 1] + step);
+				if (j > 0) {
+					d = Math.min(d, distances[index - width] + step);
+					if (i > 0)
+						d = Math.min(d, distances[index - width - 1] + diagonal);
+					if (i < width - 1)
+						d = Math.min(d, distances[index - width + 1] + diagonal);
+				}
+				distances[index] = d;
+			}
+		}
+
+		// Backward pass
+		for (int j = height - 1; j >= 0; j--) {
+			for (int i = width - 1; i >= 0; i--) {
+				int index = j * width + i;
+				float d = distances[index];
+				if (i < width - 1)
+					d = Math.min(d, distances[index + 1] + step);
+				if (j < height - 1) {
+					d = Math.min(d, distances[index + width] + step);
+					if (i < width - 1)
+						d = Math.min(d, distances[index + width + 1] + diagonal);
+					if (i > 0)
+						d = Math.min(d, distances[index + width - 1] + diagonal);
+				}
+				distances[index] = d;
+			}
+		}
+	}
+
+	/**
+	 * Returns the distance from a point to the closest wall or obstacle. Does
+	 * not allocate.
+	 *
+	 * @param x
+	 *            x position in cm
+	 * @param y
+	 *            y position in cm
+	 * @return the distance in cm
+	 */
+	public float distance(double x, double y) {
+		if (x < minX || x >= maxX || y < minY || y >= maxY) {
+			double dx = Math.max(0, Math.max(minX - x, x - maxX));
+			double dy = Math.max(0, Math.max(minY - y, y - maxY));
+			return (float) Math.sqrt(dx * dx + dy * dy);
+		}
+		return distances[Math.min(cellY(y), height - 1) * width
+				+ Math.min(cellX(x), width - 1)];
+	}
+
+	/**
+	 * @param x
+	 *            x position in cm
+	 * @param y
+	 *            y position in cm
+	 * @return true if the point is between the walls
+	 */
+	public boolean contains(double x, double y) {
+		return x >= minX && x < maxX && y >= minY && y < maxY;
+	}
+
+	private int cellX(double x) {
+		return (int) Math.floor((x - minX) / cellSize);
+	}
+
+	private int cellY(double y) {
+		return (int) Math.floor((y - minY) / cellSize);
+	}
+}
@@ -0,0 +1,185 @@
+package DPM_TEAM04.odometry;
+
+import static DPM_TEAM04.Resources.CS_DOWN_ANGLE;
+import static DPM_TEAM04.Resources.CS_DOWN_TO_CENTER;
+import static DPM_TEAM04.Resources.TILE_WIDTH;
+import DPM_TEAM04.navigation.Driver;
+import DPM_TEAM04.sensing.LineCrossing;
+import DPM_TEAM04.sensing.LineCrossingListener;
+import DPM_TEAM04.sensing.LineDetector;
+
+/**
+ * Corrects the odometer on every grid line crossed while the robot drives
+ * straight, e.g. during {@link Driver#travelTo}, so no detour or spin is
+ * needed.
+ *
+ * The line is assumed to be the one closest to where the odometer puts the
+ * downward colour sensor, and the coordinate across it (x for a vertical
+ * line, y for a horizontal one) is snapped so the sensor is on the line.
+ *
+ * Two lines of the same direction crossed on the same straight move also
+ * give the heading. After the first one is snapped, the odometer is only
+ * off at the second one because of its heading: an error d on the heading
+ * moves the sensor across the lines by about d times the distance it
+ * travelled along them. The heading is not corrected when that distance is
+ * too short to tell the heading error from the noise of the lines.
+ *
+ * The corrections are told to the {@link PoseEstimator}, which should then
+ * not listen to the lines itself.
+ *
+ * @author team04
+ *
+ */
+public class LineCorrection implements LineCrossingListener {
+
+	// A crossing closer than this to two lines (cm) cannot be told apart
+	private static final double INTERSECTION_MARGIN = 3.0;
+	// Lines farther than this from the sensor (cm) are not trusted, they may
+	// be another line than the one crossed
+	private static final double MAX_SNAP = 0.25 * TILE_WIDTH;
+	// Distance along the lines (cm) needed to correct the heading, and the
+	// largest heading correction trusted (rad)
+	private static final double MIN_LEVER = 15.0;
+	private static final double MAX_HEADING_CORRECTION = Math.toRadians(10);
+	// Variance of the position of a line under the sensor, in cm^2
+	private static final double LINE_VARIANCE = 1.0;
+
+	private final Odometer odometer;
+	private final Driver driver;
+	private final PoseEstimator estimator;
+	private LineDetector lineDetector;
+
+	// Last vertical and horizontal lines snapped: the move they were crossed
+	// on (-1 for none) and where the sensor was along them
+	private int verticalMove = -1, horizontalMove = -1;
+	private double verticalY, horizontalX;
+
+	private volatile int positionCorrections, headingCorrections, rejected;
+
+	/**
+	 * Creates a new LineCorrection. It does nothing until started.
+	 *
+	 * @param estimator
+	 *            the estimator to tell about the corrections, null for none
+	 */
+	public LineCorrection(PoseEstimator estimator) {
+		this.odometer = Odometer.getOdometer();
+		this.driver = Driver.getDriver();
+		this.estimator = estimator;
+	}
+
+	/**
+	 * Starts correcting the odometer on the lines found by a detector
+	 */
+	public void start(LineDetector lineDetector) {
+		this.lineDetector = lineDetector;
+		lineDetector.addListener(this);
+	}
+
+	/**
+	 * Stops correcting the odometer
+	 */
+	public void stop() {
+		if (lineDetector != null)
+			lineDetector.removeListener(this);
+	}
+
+	@Override
+	public synchronized void lineCrossed(LineCrossing crossing) {
+		if (!driver.isDrivingStraight()) {
+			verticalMove = horizontalMove = -1;
+			return;
+		}
+		int move = driver.getMoveCount();
+
+		double direction = crossing.getTheta() + CS_DOWN_ANGLE;
+		double sensorX = crossing.getX() + CS_DOWN_TO_CENTER
+				* Math.cos(direction);
+		double sensorY = crossing.getY() + CS_DOWN_TO_CENTER
+				* Math.sin(direction);
+
+		// Distance from the sensor to the closest line of each direction
+		double toVertical = Math.rint(sensorX / TILE_WIDTH) * TILE_WIDTH
+				- sensorX;
+		double toHorizontal = Math.rint(sensorY / TILE_WIDTH) * TILE_WIDTH
+				- sensorY;
+		if (Math.abs(toVertical) < INTERSECTION_MARGIN
+				&& Math.abs(toHorizontal) < INTERSECTION_MARGIN)
+			return;
+
+		boolean isVertical = Math.abs(toVertical) < Math.abs(toHorizontal);
+		double error = isVertical ? toVertical : toHorizontal;
+		if (Math.abs(error) > MAX_SNAP) {
+			rejected++;
+			return;
+		}
+
+		// Heading from the previous line of the same direction. Across
+		// vertical lines, a heading error d moves the sensor by -d times the
+		// distance travelled along y, across horizontal lines by d times the
+		// distance travelled along x.
+		double headingError = 0, lever = 0;
+		if (isVertical && verticalMove == move) {
+			lever = sensorY - verticalY;
+			headingError = -error / lever;
+		} else if (!isVertical && horizontalMove == move) {
+			lever = sensorX - horizontalX;
+			headingError = error / lever;
+		}
+		if (Math.abs(lever) < MIN_LEVER)
+			headingError = 0;
+		if (Math.abs(headingError) > MAX_HEADING_CORRECTION) {
+			rejected++;
+			headingError = 0;
+		}
+
+		if (isVertical) {
+			odometer.shift(error, 0, headingError);
+			// The other lines were crossed on the path before the heading
+			// was corrected, they no longer line up with the new path
+			if (headingError != 0)
+				horizontalMove = -1;
+			horizontalX += error;
+			verticalMove = move;
+			verticalY = sensorY;
+		} else {
+			odometer.shift(0, error, headingError);
+			if (headingError != 0)
+				verticalMove = -1;
+			verticalY += error;
+			horizontalMove = move;
+			horizontalX = sensorX;
+		}
+		positionCorrections++;
+
+		if (estimator != null) {
+			estimator.constrain(isVertical, LINE_VARIANCE);
+			if (headingError != 0)
+				estimator.constrainHeading(2 * LINE_VARIANCE / (lever * lever));
+		}
+		if (headingError != 0)
+			headingCorrections++;
+	}
+
+	/**
+	 * @return the number of lines the position was corrected on
+	 */
+	public int getPositionCorrections() {
+		return positionCorrections;
+	}
+
+	/**
+	 * @return the number of pairs of lines the heading was corrected from
+	 */
+	public int getHeadingCorrections() {
+		return headingCorrections;
+	}
+
+	/**
+	 * @return the number of lines or headings too far from the odometer to
+	 *         be trusted
+	 */
+	public int getRejected() {
+		return rejected;
+	}
+}
@@ -1,252 +1,382 @@
-package DPM_TEAM04.odometry;
-
-import static DPM_TEAM04.Resources.BUMPER_TO_CENTER;
-import static DPM_TEAM04.Resources.MAP_DIMENSION;
-import static DPM_TEAM04.Resources.TILE_WIDTH;
-import static DPM_TEAM04.Resources.getSideUSData;
-import static DPM_TEAM04.Resources.isLocalizing;
-import static DPM_TEAM04.Resources.leftMotor;
-import static DPM_TEAM04.Resources.rightMotor;
-import static DPM_TEAM04.Resources.startingCorner;
-
-import java.util.ArrayList;
-
-import DPM_TEAM04.Resources;
-import DPM_TEAM04.geometry.CoordinateSystem;
-import DPM_TEAM04.geometry.DirectedCoordinate;
-import DPM_TEAM04.navigation.Driver;
-import lejos.hardware.Audio;
-import lejos.hardware.ev3.LocalEV3;
-import lejos.utility.Delay;
-
-/**
- * This class localizes the robot using the ultrasonic sensor.
- * 
- * It is started by the Main class and extends Thread. It scans its environment
- * and bumps into the closest wall (the minimal distance seen). It after bumps
- * into the other wall and sets the x, y and theta values of the odometer.
- * 
- * @author Alexis Giguere-Joannette & Tristan Saumure-Toupin
- * @version 1.0
- */
-public class Localization extends Thread {
-
-	private double minDistance, minDistAngle;
-	private ArrayList<Distance> listOfDistances;
-	private boolean isLeftWall;
-
-	private DirectedCoordinate position;
-
-	public Localization() {
-		listOfDistances = new ArrayList<Distance>();
-	}
-
-	/**
-	 * Code executed when the Thread is started.
-	 */
-	public void run() {
-
-		position = Odometer.getOdometer().getPosition();
-		Driver driver = Driver.getDriver();
-
-		this.minDistance = Resources.getFrontUSData();
-		this.minDistAngle = Odometer.getOdometer().getPosition()
-				.getDirection(CoordinateSystem.POLAR_RAD);
-
-		// Rotate 360 degrees to "scan"
-		driver.rotate(360, CoordinateSystem.POLAR_DEG, true);
-
-		// wait a little to get motors started
-		Delay.msDelay(100);
-
-		// while the motors are moving (the robot is turning), save the distance
-		// seen and at which angle
-		while (leftMotor.isMoving() && rightMotor.isMoving()) {
-			saveDistance();
-		}
-
-		// set the minimal distance
-		getMinimalDistance();
-
-		// get the minimal distance and add 180 degrees as the bumper is on the
-		// back of the robot
-		// turn to the minimal distance (+180 deg) and bump into the wall
-		this.minDistAngle = (this.minDistAngle + Math.PI) % (2.0 * Math.PI);
-		driver.turnTo(this.minDistAngle, CoordinateSystem.POLAR_RAD);
-		driver.travelDistance(-(this.minDistance - Resources.BUMPER_TO_CENTER
-				+ Resources.US_TO_CENTER + 12.0));
-
-		// Once bumped into the wall, check the side sensor to see if there is a
-		// wall on its left.
-		if (getSideUSData() < TILE_WIDTH) {
-			isLeftWall = false;
-		} else {
-			isLeftWall = true;
-		}
-
-		// Correct the odometry from the first bump
-		setNewCoordinates();
-
-		// Once the odometry is corrected, move from the wall and rotate to bump
-		// into the other wall (according to its position)
-		if (isLeftWall) {
-			driver.travelDistance(6.0);
-			driver.rotate(Math.PI / 2.0, CoordinateSystem.POLAR_RAD);
-		} else {
-			driver.travelDistance(6.0);
-			driver.rotate(-Math.PI / 2.0, CoordinateSystem.POLAR_RAD);
-		}
-
-		// Go to the next wall and bump into it.
-		driver.travelDistance(-(this.minDistance - Resources.BUMPER_TO_CENTER
-				+ Resources.US_TO_CENTER + 12.0));
-
-		// Reset the boolean to set the other coordinates
-		if (isLeftWall) {
-			isLeftWall = false;
-		} else {
-			isLeftWall = true;
-		}
-
-		// Correct the odometry
-		setNewCoordinates();
-
-		/*
-		 * 
-		 * END OF LOCALIZATION
-		 */
-
-		// Make EV3 beep when it localized
-		Audio audio = LocalEV3.get().getAudio();
-		audio.systemSound(0);
-
-		// Move away from the wall
-		driver.travelDistance(10.0);
-
-		isLocalizing = false;
-
-	}
-
-	/*
-	 * |---------------| 
-	 * | 4 + + + + + 3 | 
-	 * | + + + + + + + | 
-	 * | + + + + + + + | ^y 
-	 * | + + + + + + + | | 
-	 * | + + + + + + + | | 
-	 * | 1 + + + + + 2 | |______>x
-	 * |---------------|
-	 */
-	
-	/**
-	 * This method corrects the coordinates (x,y and heading) of the robot
-	 * depending on its stating corner and on the wall it has bumped into.
-	 */
-	private void setNewCoordinates() {
-
-		// Correct the odometry according to its starting corner and the wall it
-		// has bumped into.
-		if (isLeftWall) {
-			if (startingCorner == 1) {
-				position.setX(-TILE_WIDTH + BUMPER_TO_CENTER);
-				position.setDirection(0.0, CoordinateSystem.POLAR_RAD);
-			} else if (startingCorner == 2) {
-				position.setY(-TILE_WIDTH + BUMPER_TO_CENTER);
-				position.setDirection((Math.PI / 2), CoordinateSystem.POLAR_RAD);
-
-			} else if (startingCorner == 3) {
-				position.setX((MAP_DIMENSION - 1) * TILE_WIDTH);
-				position.setDirection((Math.PI), CoordinateSystem.POLAR_RAD);
-
-			} else {
-				position.setY((MAP_DIMENSION - 1) * TILE_WIDTH);
-				position.setDirection((3 * Math.PI / 2),
-						CoordinateSystem.POLAR_RAD);
-
-			}
-		} else { // right wall
-			if (startingCorner == 1) {
-				position.setY(-TILE_WIDTH + BUMPER_TO_CENTER);
-				position.setDirection(Math.PI / 2, CoordinateSystem.POLAR_RAD);
-			} else if (startingCorner == 2) {
-				position.setX((MAP_DIMENSION - 1) * TILE_WIDTH);
-				position.setDirection((Math.PI), CoordinateSystem.POLAR_RAD);
-
-			} else if (startingCorner == 3) {
-				position.setY((MAP_DIMENSION - 1) * TILE_WIDTH);
-				position.setDirection((3 * Math.PI / 2),
-						CoordinateSystem.POLAR_RAD);
-
-			} else {
-				position.setX(-TILE_WIDTH + BUMPER_TO_CENTER);
-				position.setDirection(0.0, CoordinateSystem.POLAR_RAD);
-
-			}
-		}
-
-	}
-
-	/**
-	 * Saves the distance seen by the ultrasonic sensor and the angle at which
-	 * the distance has been seen. It saves a Distance object into an ArrayList.
-	 */
-	private void saveDistance() {
-
-		float actualDist = Resources.getFrontUSData();
-		if (actualDist > 1) {
-			Distance d = new Distance(actualDist,
-					position.getDirection(CoordinateSystem.POLAR_RAD));
-			this.listOfDistances.add(d);
-			System.out.println("\n\n\n\n\n" + actualDist);
-		}
-
-	}
-
-	/**
-	 * This method is called to set the minimal distance and its angle.
-	 * 
-	 * @return Returns the index of the minimal distance in the ArrayList of
-	 *         distances.
-	 */
-	private void getMinimalDistance() {
-
-		// Initialize the first value
-		this.minDistance = this.listOfDistances.get(0).getDistance();
-		this.minDistAngle = this.listOfDistances.get(0).getAngle();
-
-		// Search all the arraylist
-		for (int i = 1; i < this.listOfDistances.size(); i++) {
-			if (this.listOfDistances.get(i).getDistance() < this.minDistance) {
-
-				// If the distance searched in the arraylist is smaller than the
-				// previous minimum
-				// save it as the minimal distance
-
-				this.minDistance = this.listOfDistances.get(i).getDistance();
-				this.minDistAngle = this.listOfDistances.get(i).getAngle();
-
-			}
-		}
-
-	}
-	
-	public class Distance {
-
-		private double distance, angle;
-
-		public Distance(double distance, double angle) {
-			this.distance = distance;
-			this.angle = angle;
-		}
-
-		public double getDistance() {
-			return this.distance;
-		}
-
-		public double getAngle() {
-			return this.angle;
-		}
-
-	}
-
-}
\ No newline at end of file
+package DPM_TEAM04.odometry;
+
+import static DPM_TEAM04.Resources.BUMPER_TO_CENTER;
+import static DPM_TEAM04.Resources.LOCALIZATION_CELL_SIZE;
+import static DPM_TEAM04.Resources.LOCALIZATION_MAX_HEADING_SPREAD;
+import static DPM_TEAM04.Resources.LOCALIZATION_MAX_POSITION_SPREAD;
+import static DPM_TEAM04.Resources.LOCALIZATION_MIN_SWEEP;
+import static DPM_TEAM04.Resources.LOCALIZATION_PARTICLES;
+import static DPM_TEAM04.Resources.MAP_DIMENSION;
+import static DPM_TEAM04.Resources.PARTICLE_LOCALIZATION;
+import static DPM_TEAM04.Resources.TILE_WIDTH;
+import static DPM_TEAM04.Resources.US_FAST_NUM_SAMPLES;
+import static DPM_TEAM04.Resources.US_FRONT_CLIP;
+import static DPM_TEAM04.Resources.US_SIDE_ANGLE;
+import static DPM_TEAM04.Resources.US_SIDE_TO_CENTER;
+import static DPM_TEAM04.Resources.US_TO_CENTER;
+import static DPM_TEAM04.Resources.WALL_FIT_LOCALIZATION;
+import static DPM_TEAM04.Resources.WALL_FIT_MAX_RANGE;
+import static DPM_TEAM04.Resources.WALL_FIT_MAX_SWEEP;
+import static DPM_TEAM04.Resources.awaitSideUSData;
+import static DPM_TEAM04.Resources.isLocalizing;
+import static DPM_TEAM04.Resources.leftMotor;
+import static DPM_TEAM04.Resources.rightMotor;
+
+import DPM_TEAM04.Resources;
+import DPM_TEAM04.geometry.CoordinateSystem;
+import DPM_TEAM04.navigation.Driver;
+import DPM_TEAM04.sensing.ClipFilter;
+import DPM_TEAM04.sensing.FilterPipeline;
+import DPM_TEAM04.sensing.FilterStage;
+import DPM_TEAM04.sensing.MedianFilter;
+import DPM_TEAM04.sensing.SampleListener;
+import DPM_TEAM04.sensing.ScanAssembler;
+import DPM_TEAM04.sensing.UltrasonicPoller;
+import lejos.hardware.Audio;
+import lejos.hardware.ev3.LocalEV3;
+import lejos.utility.Delay;
+
+/**
+ * This class localizes the robot using the ultrasonic sensor.
+ * 
+ * It is started by the Main class and extends Thread. It scans its environment
+ * and bumps into the closest wall (the minimal distance seen). It after bumps
+ * into the other wall and sets the x, y and theta values of the odometer.
+ * 
+ * When PARTICLE_LOCALIZATION is set, the readings of the scan also feed a
+ * {@link ParticleLocalizer}. The scan stops as soon as the particles agree
+ * on a pose, and the odometer is set from it without bumping into the walls.
+ * 
+ * When WALL_FIT_LOCALIZATION is set, the robot first rotates only until the
+ * front and side sensors have seen both walls of the corner, and the
+ * odometer is set from the lines fitted to them by a
+ * {@link WallFitLocalizer}. The scan is only done if the walls were not seen.
+ * 
+ * The starting corner is not needed until the end: the robot localizes as
+ * if it started in corner 1, and {@link #resolve(int)} moves the pose to the
+ * real corner once it is known. The robot can thus localize while it waits
+ * for the parameters from the server.
+ * 
+ * @author Alexis Giguere-Joannette & Tristan Saumure-Toupin
+ * @version 1.0
+ */
+public class Localization extends Thread {
+
+	// Angular bins of the scan assembler, one per degree
+	private static final int SCAN_BINS = 360;
+
+	private double minDistance, minDistAngle;
+	private boolean isLeftWall;
+
+	private Odometer odometer;
+	private ScanAssembler scanAssembler;
+
+	private ParticleLocalizer particles;
+	private final double[] estimate = new double[5];
+	private double swept, lastHeading;
+
+	public Localization() {
+	}
+
+	/**
+	 * Code executed when the Thread is started.
+	 */
+	public void run() {
+
+		odometer = Odometer.getOdometer();
+		Driver driver = Driver.getDriver();
+
+		if (WALL_FIT_LOCALIZATION && fitWalls(driver)) {
+			LocalEV3.get().getAudio().systemSound(0);
+			isLocalizing = false;
+			return;
+		}
+
+		scanAssembler = new ScanAssembler(Resources.getFrontUSPoller(),
+				new FilterPipeline(new MedianFilter(US_FAST_NUM_SAMPLES),
+						new ClipFilter(0, US_FRONT_CLIP)), SCAN_BINS);
+
+		// The reading before the rotation starts the running minimum
+		this.minDistance = Resources.awaitFrontUSData(true);
+		this.minDistAngle = odometer.getPose().getTheta();
+
+		if (PARTICLE_LOCALIZATION) {
+			particles = new ParticleLocalizer(LOCALIZATION_PARTICLES,
+					DistanceField.ofField(LOCALIZATION_CELL_SIZE),
+					US_FRONT_CLIP);
+			particles.spread(-TILE_WIDTH, -TILE_WIDTH, 0.0, 0.0);
+			lastHeading = minDistAngle;
+		}
+
+		// Rotate 360 degrees to "scan"
+		scanAssembler.start();
+		driver.rotate(360, CoordinateSystem.POLAR_DEG, true);
+
+		// wait a little to get motors started
+		Delay.msDelay(100);
+		PoseCondition stopped = odometer.register(PoseCondition.stopped());
+
+		// while the motors are moving (the robot is turning), save the distance
+		// seen and at which angle
+		while (!stopped.isMet()) {
+			saveDistance();
+			if (particles != null && hasConverged()) {
+				leftMotor.stop(true);
+				rightMotor.stop(false);
+				break;
+			}
+		}
+		scanAssembler.stop();
+
+		if (particles != null && hasConverged()) {
+			// Catch up with the rotation since the last reading
+			Pose pose = odometer.getPose();
+			particles.update(pose.getX(), pose.getY(), pose.getTheta(),
+					Double.NaN);
+			particles.getEstimate(estimate);
+			odometer.correct(estimate[0], estimate[1], estimate[2]);
+
+			LocalEV3.get().getAudio().systemSound(0);
+			isLocalizing = false;
+			return;
+		}
+
+		// get the minimal distance and add 180 degrees as the bumper is on the
+		// back of the robot
+		// turn to the minimal distance (+180 deg) and bump into the wall
+		this.minDistAngle = (this.minDistAngle + Math.PI) % (2.0 * Math.PI);
+		driver.turnTo(this.minDistAngle, CoordinateSystem.POLAR_RAD);
+		driver.travelDistance(-(this.minDistance - Resources.BUMPER_TO_CENTER
+				+ Resources.US_TO_CENTER + 12.0));
+
+		// Once bumped into the wall, check the side sensor to see if there is a
+		// wall on its left.
+		if (awaitSideUSData(true) < TILE_WIDTH) {
+			isLeftWall = false;
+		} else {
+			isLeftWall = true;
+		}
+
+		// Correct the odometry from the first bump
+		setNewCoordinates();
+
+		// Once the odometry is corrected, move from the wall and rotate to bump
+		// into the other wall (according to its position)
+		if (isLeftWall) {
+			driver.travelDistance(6.0);
+			driver.rotate(Math.PI / 2.0, CoordinateSystem.POLAR_RAD);
+		} else {
+			driver.travelDistance(6.0);
+			driver.rotate(-Math.PI / 2.0, CoordinateSystem.POLAR_RAD);
+		}
+
+		// Go to the next wall and bump into it.
+		driver.travelDistance(-(this.minDistance - Resources.BUMPER_TO_CENTER
+				+ Resources.US_TO_CENTER + 12.0));
+
+		// Reset the boolean to set the other coordinates
+		if (isLeftWall) {
+			isLeftWall = false;
+		} else {
+			isLeftWall = true;
+		}
+
+		// Correct the odometry
+		setNewCoordinates();
+
+		/*
+		 * 
+		 * END OF LOCALIZATION
+		 */
+
+		// Make EV3 beep when it localized
+		Audio audio = LocalEV3.get().getAudio();
+		audio.systemSound(0);
+
+		// Move away from the wall
+		driver.travelDistance(10.0);
+
+		isLocalizing = false;
+
+	}
+
+	/*
+	 * |---------------| 
+	 * | 4 + + + + + 3 | 
+	 * | + + + + + + + | 
+	 * | + + + + + + + | ^y 
+	 * | + + + + + + + | | 
+	 * | + + + + + + + | | 
+	 * | 1 + + + + + 2 | |______>x
+	 * |---------------|
+	 */
+	
+	/**
+	 * This method corrects the coordinates (x,y and heading) of the robot
+	 * depending on the wall it has bumped into, as if it started in corner 1.
+	 */
+	private void setNewCoordinates() {
+
+		// Correct the odometry according to the wall it has bumped into.
+		if (isLeftWall) {
+			odometer.correct(-TILE_WIDTH + BUMPER_TO_CENTER, Double.NaN, 0.0);
+		} else { // right wall
+			odometer.correct(Double.NaN, -TILE_WIDTH + BUMPER_TO_CENTER,
+					Math.PI / 2);
+		}
+
+	}
+
+	/**
+	 * Moves the pose found by the localization from corner 1 to the real
+	 * starting corner. The field is the same after a quarter turn around its
+	 * center, so the pose is turned around the center by a quarter turn per
+	 * corner. Called once the thread ended and the robot stopped.
+	 * 
+	 * The bumps of corner 1 account for BUMPER_TO_CENTER on both walls, so
+	 * it now applies to the walls of every corner. The old table of bump
+	 * poses per corner left it out on the far walls: the right wall of
+	 * corners 2 and 3 and the top wall of corners 3 and 4.
+	 * 
+	 * @param corner
+	 *            the starting corner, 1 to 4
+	 * @throws IllegalArgumentException
+	 *             if the corner is not 1 to 4, the pose is then left in
+	 *             corner 1
+	 */
+	public void resolve(int corner) {
+		if (corner < 1 || corner > 4)
+			throw new IllegalArgumentException("No starting corner " + corner);
+		Odometer odometer = Odometer.getOdometer();
+		Pose pose = odometer.getPose();
+		double center = (MAP_DIMENSION - 2) * TILE_WIDTH / 2.0;
+		double turn = (corner - 1) * Math.PI / 2.0;
+		double cos = Math.round(Math.cos(turn)), sin = Math.round(Math
+				.sin(turn));
+		double x = pose.getX() - center, y = pose.getY() - center;
+		odometer.correct(center + cos * x - sin * y, center + sin * x + cos
+				* y, (pose.getTheta() + turn) % (2.0 * Math.PI));
+	}
+
+	/**
+	 * Rotates until both walls of the corner are seen by the
+	 * ultrasonic sensors, and sets the odometer from the lines fitted to
+	 * them.
+	 * 
+	 * @return true if the odometer was set, false if the walls were not seen
+	 *         within the rotation
+	 */
+	private boolean fitWalls(Driver driver) {
+		WallFitLocalizer walls = new WallFitLocalizer(2, WALL_FIT_MAX_RANGE);
+		UltrasonicPoller front = Resources.getFrontUSPoller();
+		UltrasonicPoller side = Resources.getSideUSPoller();
+		SampleListener frontListener = wallListener(walls, 0, front, 0.0,
+				US_TO_CENTER);
+		SampleListener sideListener = wallListener(walls, 1, side,
+				US_SIDE_ANGLE, US_SIDE_TO_CENTER);
+		front.addListener(frontListener);
+		side.addListener(sideListener);
+
+		driver.rotate(WALL_FIT_MAX_SWEEP, CoordinateSystem.POLAR_DEG, true);
+
+		// wait a little to get motors started
+		Delay.msDelay(100);
+		PoseCondition stopped = odometer.register(PoseCondition.stopped());
+
+		// Stop as soon as both walls are seen
+		while (!stopped.isMet()) {
+			walls.awaitReading();
+			Pose pose = odometer.getPose();
+			if (walls.hasCorner(pose.getX(), pose.getY())) {
+				leftMotor.stop(true);
+				rightMotor.stop(false);
+				break;
+			}
+		}
+		front.removeListener(frontListener);
+		side.removeListener(sideListener);
+
+		Pose pose = odometer.getPose();
+		double[] located = new double[3];
+		if (!walls.locate(1, pose.getX(), pose.getY(),
+				pose.getTheta(), located))
+			return false;
+		odometer.correct(located[0], located[1], located[2]);
+		return true;
+	}
+
+	/**
+	 * Creates a listener that feeds the pings of an ultrasonic sensor to a
+	 * wall fit, each with the pose the robot had when it was taken
+	 * 
+	 * @param sensor
+	 *            the index of the sensor in the wall fit
+	 * @param angle
+	 *            direction of the sensor from the heading, in rad
+	 * @param toCenter
+	 *            distance from the sensor to the center of the robot, in cm
+	 */
+	private SampleListener wallListener(final WallFitLocalizer walls,
+			final int sensor, final UltrasonicPoller poller,
+			final double angle, final double toCenter) {
+		return new SampleListener() {
+			private final FilterStage filter = new MedianFilter(
+					US_FAST_NUM_SAMPLES);
+			private final double[] pose = new double[3];
+
+			@Override
+			public void sampleReceived(float distance, long timestamp) {
+				float filtered = filter.filter(distance);
+				// The median describes the pings of a few periods ago
+				odometer.poseAt(timestamp
+						- (long) (filter.getDelay() * poller.getSamplePeriod()),
+						pose);
+				walls.addReading(sensor, pose[0], pose[1], pose[2] + angle,
+						filtered + toCenter);
+			}
+		};
+	}
+
+	/**
+	 * Checks if the particles agree on a pose. Before half a rotation a
+	 * single wall may have been seen, which leaves the pose ambiguous even if
+	 * the particles agree.
+	 * 
+	 * @return true if the pose is known
+	 */
+	private boolean hasConverged() {
+		if (swept < LOCALIZATION_MIN_SWEEP)
+			return false;
+		particles.getEstimate(estimate);
+		return estimate[3] < LOCALIZATION_MAX_POSITION_SPREAD
+				&& estimate[4] < LOCALIZATION_MAX_HEADING_SPREAD;
+	}
+
+	/**
+	 * Waits for the next reading of the scan assembler and keeps a running
+	 * minimum of the distances seen and the angle of that minimum, which is
+	 * all the bumps need. The readings themselves are only binned by the
+	 * scan assembler. The angle is the one the robot had when the reading
+	 * was taken, corrected for the filter delay by the scan assembler.
+	 */
+	private void saveDistance() {
+
+		float actualDist = scanAssembler.awaitReading();
+		double heading = scanAssembler.getReadingHeading();
+		if (particles != null) {
+			Pose pose = odometer.getPose();
+			particles.update(pose.getX(), pose.getY(), heading, actualDist);
+			swept += Math.abs(Math.IEEEremainder(heading - lastHeading,
+					2.0 * Math.PI));
+			lastHeading = heading;
+		}
+		if (actualDist > 1) {
+			if (actualDist < this.minDistance) {
+				this.minDistance = actualDist;
+				this.minDistAngle = heading;
+			}
+		}
+
+	}
+
+}
@@ -1,105 +1,434 @@
-package DPM_TEAM04.odometry;
-
-import DPM_TEAM04.Resources;
-import DPM_TEAM04.geometry.CoordinateSystem;
-import DPM_TEAM04.geometry.DirectedCoordinate;
-
-import static DPM_TEAM04.Resources.*;
-
-
-/**
- * A classic odometer. Can output position X, Y and the heading position.
- * 
- * @author Tristan Toupin, Alexis GJ & KareemHalabi
- *
- */
-public class Odometer extends Thread {
-	// robot position
-	private DirectedCoordinate position;
-
-	private int leftMotorTachoCount, rightMotorTachoCount;
-
-	private static Odometer odometerInstance;
-
-	
-	// default constructor
-	private Odometer() {
-		this.leftMotorTachoCount = 0;
-		this.rightMotorTachoCount = 0;
-		position = new DirectedCoordinate(CoordinateSystem.CARTESIAN, 0, 0, 0,
-				CoordinateSystem.POLAR_RAD);
-	}
-
-	/**
-	 * return an instance of the current Odometer. If null, will return a new Odometer.
-	 * @return
-	 */
-	public static Odometer getOdometer() {
-		if (odometerInstance == null) {
-			odometerInstance = new Odometer();
-		}
-		return odometerInstance;
-	}
-
-	// run method (required for Thread)
-	public void run() {
-		long updateStart, updateEnd;
-
-		while (true) {
-			updateStart = System.currentTimeMillis();
-
-			// Get the tacho count
-			int newLeftMotorTachoCount = leftMotor.getTachoCount();
-			int newRightMotorTachoCount = rightMotor.getTachoCount();
-
-			// Compute the distance traveled during the last iteration
-			double distL = Math.PI * Resources.WHEEL_RADIUS
-					* (newLeftMotorTachoCount - leftMotorTachoCount) / 180;
-			double distR = Math.PI * Resources.WHEEL_RADIUS
-					* (newRightMotorTachoCount - rightMotorTachoCount) / 180;
-
-			// Store last tacho count for the next iteration
-			leftMotorTachoCount = newLeftMotorTachoCount;
-			rightMotorTachoCount = newRightMotorTachoCount;
-
-			// Compute the distance the measured center moved
-			double deltaD = 0.5 * (distL + distR);
-
-			// Compute the change in the angle (in radians)
-			double deltaT = (distR - distL) / Resources.TRACK;
-
-			double currentHeading = position
-					.getDirection(CoordinateSystem.POLAR_RAD);
-
-			// Compute the x and y displacement of the movement
-			double dx = deltaD * Math.cos(currentHeading);
-			double dy = deltaD * Math.sin(currentHeading);
-
-			position.incrementCoordinate(CoordinateSystem.CARTESIAN, dx, dy,
-					deltaT, CoordinateSystem.POLAR_RAD);
-
-			// this ensures that the odometer only runs once every period
-			updateEnd = System.currentTimeMillis();
-			if (updateEnd - updateStart < Resources.ODOMETER_PERIOD) {
-				try {
-					Thread.sleep(Resources.ODOMETER_PERIOD
-							- (updateEnd - updateStart));
-				} catch (InterruptedException e) {
-					// there is nothing to be done here because it is not
-					// expected that the odometer will be interrupted by
-					// another thread
-				}
-			}
-		}
-	}
-
-	/**
-	 * Return the current position of the robot.
-	 * 
-	 * @return
-	 */
-	// Position accessor
-	public DirectedCoordinate getPosition() {
-		return position;
-	}
-}
+package DPM_TEAM04.odometry;
+
+import java.util.ArrayList;
+
+import DPM_TEAM04.geometry.CoordinateSystem;
+import DPM_TEAM04.geometry.DirectedCoordinate;
+
+import static DPM_TEAM04.Resources.*;
+
+
+/**
+ * A classic odometer. Can output position X, Y and the heading position.
+ * 
+ * After every update the odometer publishes an immutable {@link Pose}, read
+ * with {@link #getPose()} without locking. The last poses are also kept in a
+ * {@link PoseHistory}, so readings taken a moment ago can be matched with
+ * the pose at which they were taken with {@link #poseAt(long)}.
+ * 
+ * @author Tristan Toupin, Alexis GJ & KareemHalabi
+ *
+ */
+public class Odometer extends Thread {
+	// robot position
+	private DirectedCoordinate position;
+	private volatile Pose pose;
+	private final PoseHistory history = new PoseHistory(ODOMETER_HISTORY_SIZE);
+	// Conditions checked after every update until they are met
+	private final ArrayList<PoseCondition> conditions = new ArrayList<>();
+
+	private int leftMotorTachoCount, rightMotorTachoCount;
+
+	// dx, dy and dtheta of the last update
+	private final double[] delta = new double[3];
+	private volatile OdometryIntegrator.Mode integrationMode =
+			ODOMETER_INTEGRATION;
+	// Pose integrated in FIXED_POINT mode, loaded again from the position
+	// after a correction or a change of mode. Guarded by the position lock.
+	private final OdometryIntegrator.FixedPointPose fixedPose =
+			new OdometryIntegrator.FixedPointPose(LEFT_WHEEL_RADIUS,
+					RIGHT_WHEEL_RADIUS, TRACK);
+	private boolean isFixedPoseStale = true;
+	// Runs the prediction step of the filter after every update, if any
+	private volatile PoseEstimator estimator;
+	// Compares the rotation of the wheels with the commanded one
+	private final SlipDetector slipDetector = new SlipDetector();
+
+	// Time between two updates, in ns
+	private volatile long period;
+	// Measured period and average deviation from the period, in ns
+	private volatile double averagePeriod, jitter;
+	private volatile long overruns;
+
+	private static Odometer odometerInstance;
+
+	
+	// default constructor
+	private Odometer() {
+		this.leftMotorTachoCount = 0;
+		this.rightMotorTachoCount = 0;
+		setRate(ODOMETER_RATE);
+		position = new DirectedCoordinate(CoordinateSystem.CARTESIAN, 0, 0, 0,
+				CoordinateSystem.POLAR_RAD);
+		publishPose();
+	}
+
+	/**
+	 * return an instance of the current Odometer. If null, will return a new Odometer.
+	 * @return
+	 */
+	public static Odometer getOdometer() {
+		if (odometerInstance == null) {
+			odometerInstance = new Odometer();
+		}
+		return odometerInstance;
+	}
+
+	// run method (required for Thread)
+	public void run() {
+		long updateStart, lastUpdateStart = 0;
+		long deadline = System.nanoTime();
+
+		while (true) {
+			updateStart = System.nanoTime();
+
+			// Running averages of the actual period and of its deviation
+			if (lastUpdateStart != 0) {
+				long actualPeriod = updateStart - lastUpdateStart;
+				averagePeriod += 0.05 * (actualPeriod - averagePeriod);
+				jitter += 0.05 * (Math.abs(actualPeriod - period) - jitter);
+			}
+			lastUpdateStart = updateStart;
+
+			// Get the tacho count
+			int newLeftMotorTachoCount = leftMotor.getTachoCount();
+			int newRightMotorTachoCount = rightMotor.getTachoCount();
+
+			int leftChange = newLeftMotorTachoCount - leftMotorTachoCount;
+			int rightChange = newRightMotorTachoCount - rightMotorTachoCount;
+
+			// Store last tacho count for the next iteration
+			leftMotorTachoCount = newLeftMotorTachoCount;
+			rightMotorTachoCount = newRightMotorTachoCount;
+
+			boolean slipping = slipDetector.update(updateStart,
+					newLeftMotorTachoCount, newRightMotorTachoCount);
+
+			// Distance traveled by each wheel, in fixed point the pose is
+			// moved straight from the tacho counts
+			OdometryIntegrator.Mode mode = integrationMode;
+			PoseEstimator currentEstimator = estimator;
+			double distL = 0, distR = 0;
+			if (mode != OdometryIntegrator.Mode.FIXED_POINT
+					|| currentEstimator != null) {
+				distL = OdometryIntegrator.wheelDistance(LEFT_WHEEL_RADIUS,
+						leftChange);
+				distR = OdometryIntegrator.wheelDistance(RIGHT_WHEEL_RADIUS,
+						rightChange);
+			}
+
+			double heading;
+			synchronized (position) {
+				// Compute the x, y and heading displacement of the movement
+				heading = position.getDirection(CoordinateSystem.POLAR_RAD);
+				if (mode == OdometryIntegrator.Mode.FIXED_POINT) {
+					if (isFixedPoseStale) {
+						fixedPose.set(position.getX(), position.getY(),
+								heading);
+						isFixedPoseStale = false;
+					}
+					fixedPose.update(leftChange, rightChange);
+					position.setX(fixedPose.getX());
+					position.setY(fixedPose.getY());
+					position.setDirection(fixedPose.getTheta(),
+							CoordinateSystem.POLAR_RAD);
+				} else {
+					isFixedPoseStale = true;
+					OdometryIntegrator.integrate(mode, heading, distL, distR,
+							TRACK, delta);
+					position.incrementCoordinate(CoordinateSystem.CARTESIAN,
+							delta[0], delta[1], delta[2],
+							CoordinateSystem.POLAR_RAD);
+				}
+				publishPose();
+			}
+
+			// Outside of the position lock, the estimator takes its own lock
+			// and moves the pose with shift()
+			if (currentEstimator != null)
+				currentEstimator.predict(heading, distL, distR, slipping);
+
+			// Updates are scheduled on absolute deadlines, so the time spent
+			// updating or sleeping too long does not accumulate
+			deadline += period;
+			long wait = deadline - System.nanoTime();
+			if (wait <= 0) {
+				// Overrun, start again from now instead of running late
+				// updates back to back
+				overruns++;
+				deadline = System.nanoTime();
+			} else {
+				try {
+					Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+				} catch (InterruptedException e) {
+					// there is nothing to be done here because it is not
+					// expected that the odometer will be interrupted by
+					// another thread
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the rate of the odometer. Takes effect at the next update.
+	 * 
+	 * @param rate
+	 *            number of updates per second
+	 */
+	public void setRate(double rate) {
+		period = (long) (1e9 / rate);
+		averagePeriod = period;
+		jitter = 0;
+	}
+
+	/**
+	 * Sets how the odometer integrates the movement of the wheels. Exact arcs
+	 * stay accurate at lower rates than the other modes.
+	 * 
+	 * @param mode
+	 *            the integration mode
+	 */
+	public void setIntegrationMode(OdometryIntegrator.Mode mode) {
+		integrationMode = mode;
+	}
+
+	/**
+	 * Sets the estimator whose prediction step runs after every update
+	 * 
+	 * @param estimator
+	 *            the estimator, null to stop
+	 */
+	void setEstimator(PoseEstimator estimator) {
+		this.estimator = estimator;
+	}
+
+	/**
+	 * Returns the detector that checks the wheels follow the rotations
+	 * commanded by the driver
+	 * 
+	 * @return the slip detector
+	 */
+	public SlipDetector getSlipDetector() {
+		return slipDetector;
+	}
+
+	/**
+	 * Returns the estimator that tracks the uncertainty of the pose
+	 * 
+	 * @return the estimator, null if none was started
+	 */
+	public PoseEstimator getEstimator() {
+		return estimator;
+	}
+
+	/**
+	 * Returns how uncertain the position is, propagated from the movement of
+	 * the wheels since the last correction
+	 * 
+	 * @return the largest standard deviation of the position in cm, NaN if no
+	 *         estimator was started
+	 */
+	public double getPositionDeviation() {
+		PoseEstimator currentEstimator = estimator;
+		return currentEstimator != null ? currentEstimator
+				.getPositionDeviation() : Double.NaN;
+	}
+
+	/**
+	 * Returns how uncertain the heading is
+	 * 
+	 * @return the standard deviation of the heading in rad, NaN if no
+	 *         estimator was started
+	 */
+	public double getHeadingDeviation() {
+		PoseEstimator currentEstimator = estimator;
+		return currentEstimator != null ? currentEstimator
+				.getHeadingDeviation() : Double.NaN;
+	}
+
+	/**
+	 * Returns the measured time between two updates
+	 * 
+	 * @return the average period in ns
+	 */
+	public double getAveragePeriod() {
+		return averagePeriod;
+	}
+
+	/**
+	 * Returns how irregular the updates are
+	 * 
+	 * @return the average deviation of the period from the set one, in ns
+	 */
+	public double getJitter() {
+		return jitter;
+	}
+
+	/**
+	 * Returns the number of updates that ended after the start of the next
+	 * one was due
+	 * 
+	 * @return the number of overruns since the odometer started
+	 */
+	public long getOverruns() {
+		return overruns;
+	}
+
+	/**
+	 * Publishes the current position. Must be called while holding the lock
+	 * of the position, so poses are published in the order of the updates.
+	 */
+	private void publishPose() {
+		pose = new Pose(position.getX(), position.getY(),
+				position.getDirection(CoordinateSystem.POLAR_RAD),
+				System.nanoTime());
+		history.record(pose.getTimestamp(), pose.getX(), pose.getY(),
+				pose.getTheta());
+
+		synchronized (conditions) {
+			for (int i = conditions.size() - 1; i >= 0; i--) {
+				PoseCondition condition = conditions.get(i);
+				if (condition.test(pose)) {
+					conditions.remove(i);
+					condition.complete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts checking a condition after every update. Wait for it with
+	 * {@link PoseCondition#await()}.
+	 * 
+	 * @param condition
+	 *            a new condition
+	 * @return the condition
+	 */
+	public PoseCondition register(PoseCondition condition) {
+		synchronized (conditions) {
+			Pose current = pose;
+			condition.begin(current);
+			if (condition.test(current))
+				condition.complete();
+			else
+				conditions.add(condition);
+		}
+		return condition;
+	}
+
+	/**
+	 * Blocks until a condition is met. The calling thread sleeps until the
+	 * odometer finds the condition met.
+	 * 
+	 * @param condition
+	 *            a new condition
+	 */
+	public void waitFor(PoseCondition condition) {
+		register(condition).await();
+	}
+
+	/**
+	 * Return the pose of the robot at the last update. Never blocks, and x, y
+	 * and the heading always come from the same update.
+	 * 
+	 * @return the latest pose
+	 */
+	public Pose getPose() {
+		return pose;
+	}
+
+	/**
+	 * Corrects the position of the robot in a single update. The new pose is
+	 * published immediately.
+	 * 
+	 * @param x
+	 *            the new x position in cm, NaN to keep the current one
+	 * @param y
+	 *            the new y position in cm, NaN to keep the current one
+	 * @param theta
+	 *            the new heading in rad, NaN to keep the current one
+	 */
+	public void correct(double x, double y, double theta) {
+		synchronized (position) {
+			Pose old = pose;
+			if (!Double.isNaN(x))
+				position.setX(x);
+			if (!Double.isNaN(y))
+				position.setY(y);
+			if (!Double.isNaN(theta))
+				position.setDirection(theta, CoordinateSystem.POLAR_RAD);
+			isFixedPoseStale = true;
+
+			// Move the recorded path along, it is only known relative to the
+			// corrected pose
+			history.reanchor(old.getX(), old.getY(), old.getTheta(),
+					position.getX(), position.getY(),
+					position.getDirection(CoordinateSystem.POLAR_RAD));
+			publishPose();
+		}
+	}
+
+	/**
+	 * Moves the pose of the robot by a small correction, e.g. from a
+	 * {@link PoseEstimator}. Unlike {@link #correct}, the correction is
+	 * relative, so movement integrated since it was computed is kept.
+	 * 
+	 * @param dx
+	 *            change in x in cm
+	 * @param dy
+	 *            change in y in cm
+	 * @param dtheta
+	 *            change in heading in rad
+	 */
+	public void shift(double dx, double dy, double dtheta) {
+		synchronized (position) {
+			Pose old = pose;
+			position.incrementCoordinate(CoordinateSystem.CARTESIAN, dx, dy,
+					dtheta, CoordinateSystem.POLAR_RAD);
+			isFixedPoseStale = true;
+			history.reanchor(old.getX(), old.getY(), old.getTheta(),
+					position.getX(), position.getY(),
+					position.getDirection(CoordinateSystem.POLAR_RAD));
+			publishPose();
+		}
+	}
+
+	/**
+	 * Interpolates the pose of the robot at a given time in the last
+	 * {@link DPM_TEAM04.Resources#ODOMETER_HISTORY_SIZE} updates
+	 * 
+	 * @param time
+	 *            the {@link System#nanoTime()} to look up
+	 * @return the pose at that time, the oldest or newest pose known if the
+	 *         time is out of the history
+	 */
+	public Pose poseAt(long time) {
+		return history.poseAt(time);
+	}
+
+	/**
+	 * Interpolates the pose of the robot at a given time without allocating
+	 * 
+	 * @param time
+	 *            the {@link System#nanoTime()} to look up
+	 * @param dest
+	 *            array of at least 3 elements that receives x, y (in cm) and
+	 *            the heading (in rad)
+	 */
+	public void poseAt(long time, double[] dest) {
+		history.poseAt(time, dest);
+	}
+
+	/**
+	 * Return the position object updated by the odometer. Its values are
+	 * read one at a time and may come from different updates, use
+	 * {@link #getPose()} to read the position and {@link #correct} to change
+	 * it.
+	 * 
+	 * @return
+	 */
+	// Position accessor
+	public DirectedCoordinate getPosition() {
+		return position;
+	}
+}
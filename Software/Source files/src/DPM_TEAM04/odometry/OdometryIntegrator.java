@@ -0,0 +1,233 @@
+package DPM_TEAM04.odometry;
+
+import DPM_TEAM04.geometry.FixedPoint;
+
+/**
+ * Turns the distance travelled by each wheel during an odometer period into
+ * a displacement of the robot.
+ *
+ * @author team04
+ *
+ */
+public final class OdometryIntegrator {
+
+	/**
+	 * How the heading is assumed to change during a period
+	 */
+	public enum Mode {
+		/**
+		 * The robot moves in a straight line along the heading it had at the
+		 * start of the period. Only accurate for short periods.
+		 */
+		EULER,
+		/**
+		 * The robot moves in a straight line along the heading it had half
+		 * way through the period.
+		 */
+		MIDPOINT,
+		/**
+		 * The robot follows an arc of constant curvature, exact as long as
+		 * both wheels keep a constant speed during the period.
+		 */
+		EXACT_ARC,
+		/**
+		 * Same as MIDPOINT, computed with {@link FixedPoint} integers and
+		 * lookup tables instead of doubles and Math.sin and Math.cos, which
+		 * are emulated in software on the EV3. The odometer keeps its pose in
+		 * a {@link FixedPointPose} in this mode.
+		 */
+		FIXED_POINT
+	}
+
+	// Below this change in heading (rad) an arc is a straight line
+	private static final double MIN_ARC_ANGLE = 1e-9;
+
+	private OdometryIntegrator() {
+	}
+
+	/**
+	 * Computes the displacement of the robot during a period.
+	 *
+	 * @param mode
+	 *            the integration mode
+	 * @param heading
+	 *            heading at the start of the period in rad
+	 * @param distL
+	 *            distance travelled by the left wheel in cm
+	 * @param distR
+	 *            distance travelled by the right wheel in cm
+	 * @param track
+	 *            distance between the wheels in cm
+	 * @param delta
+	 *            array of at least 3 elements that receives dx, dy (in cm)
+	 *            and the change in heading (in rad)
+	 */
+	public static void integrate(Mode mode, double heading, double distL,
+			double distR, double track, double[] delta) {
+
+		// Distance the center moved and change in heading
+		double deltaD = 0.5 * (distL + distR);
+		double deltaT = (distR - distL) / track;
+
+		switch (mode) {
+		case EULER:
+			delta[0] = deltaD * Math.cos(heading);
+			delta[1] = deltaD * Math.sin(heading);
+			break;
+		case MIDPOINT:
+			delta[0] = deltaD * Math.cos(heading + deltaT / 2);
+			delta[1] = deltaD * Math.sin(heading + deltaT / 2);
+			break;
+		case FIXED_POINT:
+			integrateFixed(heading, distL, distR, track, delta);
+			return;
+		default:
+			if (Math.abs(deltaT) < MIN_ARC_ANGLE) {
+				delta[0] = deltaD * Math.cos(heading);
+				delta[1] = deltaD * Math.sin(heading);
+			} else {
+				double radius = deltaD / deltaT;
+				delta[0] = radius
+						* (Math.sin(heading + deltaT) - Math.sin(heading));
+				delta[1] = -radius
+						* (Math.cos(heading + deltaT) - Math.cos(heading));
+			}
+		}
+		delta[2] = deltaT;
+	}
+
+	/**
+	 * MIDPOINT integration with fixed-point numbers, converting the inputs and
+	 * outputs from and to doubles on every call. {@link FixedPointPose}
+	 * avoids the conversions.
+	 */
+	private static void integrateFixed(double heading, double distL,
+			double distR, double track, double[] delta) {
+		int left = FixedPoint.toFixed(distL), right = FixedPoint.toFixed(distR);
+		int distance = (left + right) >> 1;
+		int rotation = FixedPoint.fixedRadToAngle(FixedPoint.div(right - left,
+				FixedPoint.toFixed(track)));
+		int middle = FixedPoint.toAngle(heading) + (rotation >> 1);
+
+		delta[0] = FixedPoint.toDouble(FixedPoint.mul(distance,
+				FixedPoint.cos(middle)));
+		delta[1] = FixedPoint.toDouble(FixedPoint.mul(distance,
+				FixedPoint.sin(middle)));
+		delta[2] = FixedPoint.toRad(rotation);
+	}
+
+	/**
+	 * Converts a change in tacho count to a distance travelled by a wheel
+	 *
+	 * @param radius
+	 *            radius of the wheel in cm
+	 * @param tachoChange
+	 *            change in tacho count in deg
+	 * @return the distance in cm
+	 */
+	public static double wheelDistance(double radius, int tachoChange) {
+		return Math.PI * radius * tachoChange / 180;
+	}
+
+	/**
+	 * Pose of the robot kept in fixed point and moved straight from the
+	 * changes in tacho counts, with the same integration as
+	 * {@link Mode#FIXED_POINT}. The factors from tacho counts to distances
+	 * and rotations are computed once, so an update only uses integer
+	 * operations; doubles are only used to read the pose and to set it after
+	 * a correction.
+	 *
+	 * The position is kept with 32 bits of fraction, so the products of the
+	 * distances by the sines are added without rounding and a long run does
+	 * not drift.
+	 */
+	public static final class FixedPointPose {
+
+		private static final double ONE_32 = 4294967296.0;
+
+		// Distance travelled by each wheel per tacho degree, in cm with 32
+		// bits of fraction, and rotation of the robot per tacho degree, in
+		// binary angle with 16 bits of fraction
+		private final long leftDistance, rightDistance;
+		private final long leftRotation, rightRotation;
+
+		// x and y in cm with 32 bits of fraction, heading in binary angle
+		private long x, y;
+		private int heading;
+
+		/**
+		 * Creates a new FixedPointPose at the origin
+		 *
+		 * @param leftRadius
+		 *            radius of the left wheel in cm
+		 * @param rightRadius
+		 *            radius of the right wheel in cm
+		 * @param track
+		 *            distance between the wheels in cm
+		 */
+		public FixedPointPose(double leftRadius, double rightRadius,
+				double track) {
+			leftDistance = Math.round(wheelDistance(leftRadius, 1) * ONE_32);
+			rightDistance = Math.round(wheelDistance(rightRadius, 1) * ONE_32);
+			// A turn is 2^32 binary angle units, with 16 more bits of fraction
+			double unitsPerRad = ONE_32 * FixedPoint.ONE / (2 * Math.PI);
+			leftRotation = Math.round(wheelDistance(leftRadius, 1) / track
+					* unitsPerRad);
+			rightRotation = Math.round(wheelDistance(rightRadius, 1) / track
+					* unitsPerRad);
+		}
+
+		/**
+		 * Moves the pose by the rotation of the wheels during a period
+		 *
+		 * @param leftTachoChange
+		 *            change in tacho count of the left wheel in deg
+		 * @param rightTachoChange
+		 *            change in tacho count of the right wheel in deg
+		 */
+		public void update(int leftTachoChange, int rightTachoChange) {
+			// Distance the center moved in Q16.16, rounded to the nearest
+			long sum = leftTachoChange * leftDistance + rightTachoChange
+					* rightDistance;
+			int distance = (int) ((sum + (1L << 16)) >> 17);
+			int rotation = (int) ((rightTachoChange * rightRotation
+					- leftTachoChange * leftRotation + (1L << 15)) >> 16);
+
+			int middle = heading + (rotation >> 1);
+			x += (long) distance * FixedPoint.cos(middle);
+			y += (long) distance * FixedPoint.sin(middle);
+			heading += rotation;
+		}
+
+		/**
+		 * Sets the pose, e.g. after a correction
+		 *
+		 * @param x
+		 *            x in cm
+		 * @param y
+		 *            y in cm
+		 * @param theta
+		 *            heading in rad
+		 */
+		public void set(double x, double y, double theta) {
+			this.x = Math.round(x * ONE_32);
+			this.y = Math.round(y * ONE_32);
+			this.heading = FixedPoint.toAngle(theta);
+		}
+
+		public double getX() {
+			return x / ONE_32;
+		}
+
+		public double getY() {
+			return y / ONE_32;
+		}
+
+		/**
+		 * @return the heading in rad, 0 <= theta < 2pi
+		 */
+		public double getTheta() {
+			return FixedPoint.toPositiveRad(heading);
+		}
+	}
+}
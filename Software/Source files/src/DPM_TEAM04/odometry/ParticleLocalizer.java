@@ -0,0 +1,358 @@
+package DPM_TEAM04.odometry;
+
+import static DPM_TEAM04.Resources.US_TO_CENTER;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo localization with the front ultrasonic sensor.
+ *
+ * The possible poses of the robot are kept as particles in flat arrays of
+ * primitives. Every update moves the particles by the motion the odometer
+ * measured since the previous update, with some noise, then weights them by
+ * how well the range seen matches the walls. The match is looked up in a
+ * {@link DistanceField}: the point hit by the beam should be on a wall, so
+ * its distance to the closest wall is the error of the particle. A ping
+ * without echo means there is no wall within the range of the sensor, which
+ * rules out the particles whose beam would leave the field before that.
+ * Particles are resampled once most of the weight sits on a few of them.
+ *
+ * The filter converges as soon as the readings tell the pose apart, usually
+ * before a full rotation. On the brick the weights are computed on the
+ * calling thread and nothing is allocated. Off the brick (simulation or
+ * replay of recorded scans) the weights can be computed in parallel by a
+ * fork-join pool.
+ *
+ * @author team04
+ *
+ */
+public class ParticleLocalizer {
+
+	// Error of a range (cm) and probability of a reading unrelated to the
+	// walls
+	private static final double RANGE_DEVIATION = 3.0;
+	private static final double RANDOM_READING = 0.05;
+	// Likelihood of a ping without echo for a particle that should have seen
+	// a wall, and margin before the range of the sensor in which it is not
+	// sure (cm)
+	private static final double MISSED_WALL = 0.2, NO_ECHO_MARGIN = 15.0;
+	// Motion noise: part of the distance (and rotation) and constant part per
+	// update
+	private static final double DISTANCE_NOISE = 0.05, POSITION_JITTER = 0.1;
+	private static final double ROTATION_NOISE = 0.05, HEADING_JITTER = 0.002;
+	// Noise added to resampled particles so copies of a particle spread out
+	// again (cm and rad)
+	private static final double ROUGHEN_POSITION = 0.5, ROUGHEN_HEADING = 0.01;
+	// Particles evaluated by a single fork-join task
+	private static final int TASK_SIZE = 256;
+
+	private final DistanceField field;
+	private final double maxRange;
+	private final Random random;
+	private final ForkJoinPool pool;
+
+	// Particles, and the arrays they are resampled into
+	private double[] xs, ys, thetas;
+	private double[] nextXs, nextYs, nextThetas;
+	private final double[] weights;
+	private final int count;
+
+	// Odometer pose at the last update
+	private double lastX, lastY, lastTheta;
+	private boolean hasLastPose;
+
+	// Range being weighted, read by the fork-join tasks
+	private double range;
+
+	/**
+	 * Creates a new ParticleLocalizer that computes the weights on the
+	 * calling thread
+	 *
+	 * @param count
+	 *            number of particles
+	 * @param field
+	 *            distances to the walls
+	 * @param maxRange
+	 *            ranges from this distance (cm) mean there was no echo
+	 */
+	public ParticleLocalizer(int count, DistanceField field, double maxRange) {
+		this(count, field, maxRange, 0, System.nanoTime());
+	}
+
+	/**
+	 * Creates a new ParticleLocalizer
+	 *
+	 * @param count
+	 *            number of particles
+	 * @param field
+	 *            distances to the walls
+	 * @param maxRange
+	 *            ranges from this distance (cm) mean there was no echo
+	 * @param parallelism
+	 *            number of threads computing the weights, 0 to compute them
+	 *            on the calling thread. Only useful off the brick.
+	 * @param seed
+	 *            seed of the noise added to the particles, the same seed
+	 *            gives the same particles for the same readings
+	 */
+	public ParticleLocalizer(int count, DistanceField field, double maxRange,
+			int parallelism, long seed) {
+		this.count = count;
+		this.field = field;
+		this.maxRange = maxRange;
+		this.random = new Random(seed);
+		this.pool = parallelism > 0 ? new ForkJoinPool(parallelism) : null;
+
+		this.xs = new double[count];
+		this.ys = new double[count];
+		this.thetas = new double[count];
+		this.nextXs = new double[count];
+		this.nextYs = new double[count];
+		this.nextThetas = new double[count];
+		this.weights = new double[count];
+	}
+
+	/**
+	 * Spreads the particles uniformly in a rectangle, with any heading, and
+	 * forgets the last odometer pose
+	 *
+	 * @param minX
+	 *            left side of the rectangle in cm
+	 * @param minY
+	 *            bottom side of the rectangle in cm
+	 * @param maxX
+	 *            right side of the rectangle in cm
+	 * @param maxY
+	 *            top side of the rectangle in cm
+	 */
+	public void spread(double minX, double minY, double maxX, double maxY) {
+		for (int i = 0; i < count; i++) {
+			xs[i] = minX + random.nextDouble() * (maxX - minX);
+			ys[i] = minY + random.nextDouble() * (maxY - minY);
+			thetas[i] = random.nextDouble() * 2.0 * Math.PI;
+			weights[i] = 1.0 / count;
+		}
+		hasLastPose = false;
+	}
+
+	/**
+	 * Moves the particles by the motion of the odometer since the previous
+	 * update, then weights them with a range of the front sensor
+	 *
+	 * @param x
+	 *            x position given by the odometer when the range was taken
+	 * @param y
+	 *            y position given by the odometer when the range was taken
+	 * @param theta
+	 *            heading given by the odometer when the range was taken, in
+	 *            rad
+	 * @param range
+	 *            the range in cm, infinity (or any range beyond the maximum)
+	 *            if there was no echo, NaN to only move the particles
+	 */
+	public void update(double x, double y, double theta, double range) {
+		if (hasLastPose)
+			move(x - lastX, y - lastY, theta - lastTheta);
+		lastX = x;
+		lastY = y;
+		lastTheta = theta;
+		hasLastPose = true;
+
+		if (Double.isNaN(range) || range <= 0)
+			return;
+
+		this.range = range;
+		if (pool != null)
+			pool.invoke(new WeightTask(0, count));
+		else
+			weigh(0, count);
+		normalize();
+	}
+
+	/**
+	 * Moves every particle by the motion of the odometer, expressed relative
+	 * to the robot so it applies to any heading
+	 */
+	private void move(double dx, double dy, double dtheta) {
+		double cos = Math.cos(lastTheta), sin = Math.sin(lastTheta);
+		double forward = dx * cos + dy * sin;
+		double lateral = -dx * sin + dy * cos;
+		dtheta = Math.IEEEremainder(dtheta, 2.0 * Math.PI);
+
+		double positionDeviation = DISTANCE_NOISE
+				* Math.hypot(forward, lateral) + POSITION_JITTER;
+		double headingDeviation = ROTATION_NOISE * Math.abs(dtheta)
+				+ HEADING_JITTER;
+
+		for (int i = 0; i < count; i++) {
+			double c = Math.cos(thetas[i]), s = Math.sin(thetas[i]);
+			xs[i] += forward * c - lateral * s + positionDeviation
+					* random.nextGaussian();
+			ys[i] += forward * s + lateral * c + positionDeviation
+					* random.nextGaussian();
+			thetas[i] += dtheta + headingDeviation * random.nextGaussian();
+		}
+	}
+
+	/**
+	 * Multiplies the weights of a range of particles by the likelihood of the
+	 * current range
+	 */
+	private void weigh(int from, int to) {
+		if (range >= maxRange) {
+			// No echo, the beam must stay in the field up to the range of the
+			// sensor
+			double reach = maxRange - NO_ECHO_MARGIN + US_TO_CENTER;
+			for (int i = from; i < to; i++) {
+				if (!field.contains(xs[i] + reach * Math.cos(thetas[i]), ys[i]
+						+ reach * Math.sin(thetas[i])))
+					weights[i] *= MISSED_WALL;
+			}
+			return;
+		}
+
+		double reach = range + US_TO_CENTER;
+		double scale = -0.5 / (RANGE_DEVIATION * RANGE_DEVIATION);
+
+		for (int i = from; i < to; i++) {
+			double hitX = xs[i] + reach * Math.cos(thetas[i]);
+			double hitY = ys[i] + reach * Math.sin(thetas[i]);
+			double error = field.distance(hitX, hitY);
+			weights[i] *= (1 - RANDOM_READING)
+					* Math.exp(scale * error * error) + RANDOM_READING;
+		}
+	}
+
+	/**
+	 * Normalizes the weights and resamples when too few particles carry most
+	 * of the weight
+	 */
+	private void normalize() {
+		double total = 0;
+		for (int i = 0; i < count; i++)
+			total += weights[i];
+
+		double squares = 0;
+		for (int i = 0; i < count; i++) {
+			weights[i] /= total;
+			squares += weights[i] * weights[i];
+		}
+
+		// Effective number of particles
+		if (1.0 / squares < count / 2)
+			resample();
+	}
+
+	/**
+	 * Systematic resampling: particles are drawn at regular steps of the
+	 * cumulative weight, starting from a single random offset
+	 */
+	private void resample() {
+		double step = 1.0 / count;
+		double position = random.nextDouble() * step;
+		double cumulative = weights[0];
+		int source = 0;
+
+		for (int i = 0; i < count; i++) {
+			while (position > cumulative && source < count - 1)
+				cumulative += weights[++source];
+			nextXs[i] = xs[source] + ROUGHEN_POSITION * random.nextGaussian();
+			nextYs[i] = ys[source] + ROUGHEN_POSITION * random.nextGaussian();
+			nextThetas[i] = thetas[source] + ROUGHEN_HEADING
+					* random.nextGaussian();
+			position += step;
+		}
+
+		double[] swap = xs;
+		xs = nextXs;
+		nextXs = swap;
+		swap = ys;
+		ys = nextYs;
+		nextYs = swap;
+		swap = thetas;
+		thetas = nextThetas;
+		nextThetas = swap;
+
+		for (int i = 0; i < count; i++)
+			weights[i] = step;
+	}
+
+	/**
+	 * Computes the weighted mean pose and how spread the particles are around
+	 * it
+	 *
+	 * @param dest
+	 *            array of at least 5 elements that receives x, y (in cm), the
+	 *            heading (in rad, 0 <= theta < 2pi), the standard deviation
+	 *            of the position (in cm) and of the heading (in rad)
+	 */
+	public void getEstimate(double[] dest) {
+		double x = 0, y = 0, cos = 0, sin = 0;
+		for (int i = 0; i < count; i++) {
+			x += weights[i] * xs[i];
+			y += weights[i] * ys[i];
+			cos += weights[i] * Math.cos(thetas[i]);
+			sin += weights[i] * Math.sin(thetas[i]);
+		}
+
+		double spread = 0;
+		for (int i = 0; i < count; i++) {
+			double dx = xs[i] - x, dy = ys[i] - y;
+			spread += weights[i] * (dx * dx + dy * dy);
+		}
+
+		double theta = Math.atan2(sin, cos);
+		if (theta < 0)
+			theta += 2.0 * Math.PI;
+
+		// Circular standard deviation from the length of the mean heading
+		double length = Math.min(1.0, Math.hypot(cos, sin));
+
+		dest[0] = x;
+		dest[1] = y;
+		dest[2] = theta;
+		dest[3] = Math.sqrt(spread);
+		dest[4] = length > 0 ? Math.sqrt(-2.0 * Math.log(length))
+				: Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Stops the threads computing the weights, if any
+	 */
+	public void shutdown() {
+		if (pool != null)
+			pool.shutdown();
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Computes the weights of a range of particles, split in halves until
+	 * small enough
+	 */
+	private class WeightTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final int from, to;
+
+		WeightTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= TASK_SIZE) {
+				weigh(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new WeightTask(from, middle), new WeightTask(middle,
+						to));
+			}
+		}
+	}
+}
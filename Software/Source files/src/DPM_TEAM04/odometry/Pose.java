@@ -0,0 +1,135 @@
+package DPM_TEAM04.odometry;
+
+import DPM_TEAM04.geometry.Coordinate;
+import DPM_TEAM04.geometry.CoordinateSystem;
+
+/**
+ * Immutable snapshot of the position and heading of the robot, published by
+ * the {@link Odometer}. The three values always come from the same odometer
+ * update, and reading them never blocks.
+ *
+ * @author team04
+ *
+ */
+public final class Pose {
+
+	private final double x, y, theta;
+	private final long timestamp;
+
+	/**
+	 * Creates a new Pose
+	 *
+	 * @param x
+	 *            x position in cm
+	 * @param y
+	 *            y position in cm
+	 * @param theta
+	 *            heading in rad, 0 <= theta < 2pi with 0 rad as x axis
+	 * @param timestamp
+	 *            {@link System#nanoTime()} at which the pose was computed
+	 */
+	public Pose(double x, double y, double theta, long timestamp) {
+		this.x = x;
+		this.y = y;
+		this.theta = theta;
+		this.timestamp = timestamp;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @return the heading in rad, 0 <= theta < 2pi with 0 rad as x axis
+	 */
+	public double getTheta() {
+		return theta;
+	}
+
+	/**
+	 * @return the {@link System#nanoTime()} at which the pose was computed
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Gets the heading in @param unit units, same as
+	 * {@link DPM_TEAM04.geometry.DirectedCoordinate#getDirection(CoordinateSystem)}
+	 *
+	 * @param unit
+	 *            Desired angular unit
+	 * @return Heading in @param unit units
+	 */
+	public double getDirection(CoordinateSystem unit) {
+		switch (unit) {
+		case POLAR_DEG:
+			return theta * 180 / Math.PI;
+		case HEADING_DEG:
+			double thetaDeg = theta * 180 / Math.PI;
+			if (0 <= thetaDeg && thetaDeg <= 90)
+				return 90 - thetaDeg;
+			else
+				return 450 - thetaDeg;
+		default: // POLAR_RAD, and rad if CARTESIAN selected
+			return theta;
+		}
+	}
+
+	/**
+	 * Returns shortest distance between this pose and @param dest
+	 *
+	 * @param dest
+	 *            Coordinate to compare to
+	 * @return Shortest distance in cm
+	 */
+	public double distanceTo(Coordinate dest) {
+		double xDist = dest.getX() - x;
+		double yDist = dest.getY() - y;
+		return Math.sqrt(xDist * xDist + yDist * yDist);
+	}
+
+	/**
+	 * Returns shortest angular displacement between the heading of this pose
+	 * and the direction of @param dest
+	 *
+	 * @param dest
+	 *            Coordinate to compare to
+	 * @param angleUnit
+	 *            Unit of returned angle
+	 * @return shortest angular displacement. If the two points are the same,
+	 *         0 is returned
+	 */
+	public double angleTo(Coordinate dest, CoordinateSystem angleUnit) {
+		return new Coordinate(CoordinateSystem.CARTESIAN, x, y).angleTo(dest,
+				theta, CoordinateSystem.POLAR_RAD, angleUnit);
+	}
+
+	/**
+	 * Returns shortest angular displacement between the heading of this pose
+	 * and @param angle
+	 *
+	 * @param angle
+	 *            The angle to compare to
+	 * @param angleUnit
+	 *            Unit of @param angle as well as the returned angle
+	 * @return shortest angular displacement. If the two directions are the
+	 *         same, 0 is returned
+	 */
+	public double directionTo(double angle, CoordinateSystem angleUnit) {
+		double changeInAngle = angle - getDirection(angleUnit);
+		double halfTurn = (angleUnit == CoordinateSystem.POLAR_DEG
+				|| angleUnit == CoordinateSystem.HEADING_DEG) ? 180 : Math.PI;
+
+		if (changeInAngle > halfTurn) {
+			changeInAngle -= 2 * halfTurn;
+		} else if (changeInAngle < -halfTurn) {
+			changeInAngle += 2 * halfTurn;
+		}
+		return changeInAngle;
+	}
+}
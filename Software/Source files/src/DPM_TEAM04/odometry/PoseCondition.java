@@ -0,0 +1,191 @@
+package DPM_TEAM04.odometry;
+
+import static DPM_TEAM04.Resources.leftMotor;
+import static DPM_TEAM04.Resources.rightMotor;
+import DPM_TEAM04.geometry.CoordinateSystem;
+
+/**
+ * A condition on the pose of the robot, checked by the odometer thread after
+ * every update once registered with {@link Odometer#register(PoseCondition)}.
+ * Threads waiting for the condition sleep in {@link #await()} until the
+ * odometer finds it met, instead of polling the pose in a loop.
+ *
+ * A condition can only be met once. Create a new one for every wait.
+ *
+ * @author team04
+ *
+ */
+public abstract class PoseCondition {
+
+	private boolean isMet;
+
+	/**
+	 * Called once by the odometer when the condition is registered
+	 *
+	 * @param pose
+	 *            the pose at registration
+	 */
+	protected void begin(Pose pose) {
+	}
+
+	/**
+	 * Checks the condition against a new pose. Called by the odometer thread,
+	 * must return quickly.
+	 *
+	 * @param pose
+	 *            the latest pose
+	 * @return true if the condition is met
+	 */
+	protected abstract boolean test(Pose pose);
+
+	/**
+	 * Marks the condition as met and wakes up the waiting threads
+	 */
+	synchronized void complete() {
+		isMet = true;
+		notifyAll();
+	}
+
+	/**
+	 * @return true if the odometer found the condition met
+	 */
+	public synchronized boolean isMet() {
+		return isMet;
+	}
+
+	/**
+	 * Waits until the condition is met
+	 */
+	public synchronized void await() {
+		while (!isMet) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Waits until the condition is met or the timeout elapses
+	 *
+	 * @param timeout
+	 *            maximum time to wait in ms
+	 * @return true if the condition is met
+	 */
+	public synchronized boolean await(long timeout) {
+		long end = System.currentTimeMillis() + timeout;
+		long remaining = timeout;
+		while (!isMet && remaining > 0) {
+			try {
+				wait(remaining);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			remaining = end - System.currentTimeMillis();
+		}
+		return isMet;
+	}
+
+	/**
+	 * Met once the robot is within a radius of a point
+	 *
+	 * @param x
+	 *            x position of the point in cm
+	 * @param y
+	 *            y position of the point in cm
+	 * @param radius
+	 *            distance to the point in cm under which it is reached
+	 * @return the condition
+	 */
+	public static PoseCondition reached(final double x, final double y,
+			final double radius) {
+		return new PoseCondition() {
+			@Override
+			protected boolean test(Pose pose) {
+				double dx = pose.getX() - x, dy = pose.getY() - y;
+				return dx * dx + dy * dy <= radius * radius;
+			}
+		};
+	}
+
+	/**
+	 * Met once the robot travelled a distance along its path since the
+	 * condition was registered
+	 *
+	 * @param distance
+	 *            the distance in cm
+	 * @return the condition
+	 */
+	public static PoseCondition travelled(final double distance) {
+		return new PoseCondition() {
+			private double lastX, lastY, travelled;
+
+			@Override
+			protected void begin(Pose pose) {
+				lastX = pose.getX();
+				lastY = pose.getY();
+			}
+
+			@Override
+			protected boolean test(Pose pose) {
+				travelled += Math.hypot(pose.getX() - lastX, pose.getY()
+						- lastY);
+				lastX = pose.getX();
+				lastY = pose.getY();
+				return travelled >= distance;
+			}
+		};
+	}
+
+	/**
+	 * Met once the heading of the robot reaches or crosses an angle, in
+	 * either direction
+	 *
+	 * @param angle
+	 *            the angle in rad, 0 rad as x axis
+	 * @return the condition
+	 */
+	public static PoseCondition headingCrossed(final double angle) {
+		return new PoseCondition() {
+			private static final double TOLERANCE = 1e-3;
+			private double lastDifference;
+
+			@Override
+			protected void begin(Pose pose) {
+				lastDifference = pose.directionTo(angle,
+						CoordinateSystem.POLAR_RAD);
+			}
+
+			@Override
+			protected boolean test(Pose pose) {
+				double difference = pose.directionTo(angle,
+						CoordinateSystem.POLAR_RAD);
+
+				// The angle is crossed when the difference changes sign,
+				// except when jumping from -pi to pi on the other side
+				boolean crossed = Math.abs(difference) < TOLERANCE
+						|| (difference * lastDifference < 0 && Math
+								.abs(difference - lastDifference) < Math.PI);
+				lastDifference = difference;
+				return crossed;
+			}
+		};
+	}
+
+	/**
+	 * Met once both wheels stopped moving
+	 *
+	 * @return the condition
+	 */
+	public static PoseCondition stopped() {
+		return new PoseCondition() {
+			@Override
+			protected boolean test(Pose pose) {
+				return !leftMotor.isMoving() && !rightMotor.isMoving();
+			}
+		};
+	}
+}
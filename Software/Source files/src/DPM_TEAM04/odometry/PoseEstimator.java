@@ -0,0 +1,409 @@
+package DPM_TEAM04.odometry;
+
+import static DPM_TEAM04.Resources.CS_DOWN_ANGLE;
+import static DPM_TEAM04.Resources.CS_DOWN_TO_CENTER;
+import static DPM_TEAM04.Resources.MAP_DIMENSION;
+import static DPM_TEAM04.Resources.TILE_WIDTH;
+import static DPM_TEAM04.Resources.TRACK;
+import static DPM_TEAM04.Resources.US_FRONT_CLIP;
+import static DPM_TEAM04.Resources.US_TO_CENTER;
+import DPM_TEAM04.sensing.LineCrossing;
+import DPM_TEAM04.sensing.LineCrossingListener;
+import DPM_TEAM04.sensing.LineDetector;
+import DPM_TEAM04.sensing.SampleListener;
+import DPM_TEAM04.sensing.UltrasonicPoller;
+
+/**
+ * Extended Kalman filter on the pose of the robot. The odometer stays the
+ * owner of the pose: it runs the prediction step on every update, and the
+ * estimator only keeps the 3x3 covariance of the pose. Grid lines crossed by
+ * the downward colour sensor and distances to the walls measured by the
+ * front ultrasonic sensor are absorbed as they arrive, and the correction
+ * they give is applied to the odometer with {@link Odometer#shift}.
+ *
+ * Every measurement is a scalar, so an update needs no matrix inversion. The
+ * covariance is symmetric and is kept as its 6 distinct entries, all the
+ * products are written out and nothing is allocated after construction.
+ * Measurements too far from what the pose predicts (more than 3 standard
+ * deviations) are rejected. A block or an obstacle in front of a wall can
+ * only shorten an ultrasonic range, so ranges shorter than predicted are
+ * rejected past a single standard deviation.
+ *
+ * @author team04
+ *
+ */
+public class PoseEstimator implements LineCrossingListener, SampleListener {
+
+	// Variance added per cm travelled by each wheel, in cm^2 / cm
+	private static final double WHEEL_VARIANCE = 0.002;
+	// Factor on the wheel variance while a wheel slips
+	private static final double SLIP_VARIANCE_GAIN = 25.0;
+	// Variance of the position of a grid line under the sensor, in cm^2
+	private static final double LINE_VARIANCE = 1.0;
+	// Variance of an ultrasonic range to a wall, in cm^2
+	private static final double RANGE_VARIANCE = 4.0;
+	// Squared number of standard deviations over which a measurement is
+	// rejected, and over which a range shorter than predicted is rejected
+	private static final double GATE = 9.0;
+	private static final double SHORT_RANGE_GATE = 1.0;
+	// A crossing closer than this to two lines (cm) cannot be told apart
+	private static final double INTERSECTION_MARGIN = 3.0;
+	// The ultrasonic beam must hit a wall within this angle of its normal
+	private static final double MAX_INCIDENCE_COS = Math.cos(Math.PI / 6);
+	// Ranges closer than this to the clip of the sensor are not trusted (cm)
+	private static final double RANGE_MARGIN = 10.0;
+
+	// Position of the walls, the origin is on the first grid line
+	private static final double WALL_MIN = -TILE_WIDTH,
+			WALL_MAX = (MAP_DIMENSION - 1) * TILE_WIDTH;
+
+	private final Odometer odometer;
+
+	// Covariance of x, y and the heading, symmetric
+	private double pxx, pxy, pxt, pyy, pyt, ptt;
+
+	// Pose looked up in the history for a ping
+	private final double[] pose = new double[3];
+	private volatile long accepted, rejected;
+
+	private LineDetector lineDetector;
+	private UltrasonicPoller rangePoller;
+
+	/**
+	 * Creates a new PoseEstimator. It does nothing until started.
+	 *
+	 * @param positionVariance
+	 *            initial variance of x and y in cm^2
+	 * @param headingVariance
+	 *            initial variance of the heading in rad^2
+	 */
+	public PoseEstimator(double positionVariance, double headingVariance) {
+		this.odometer = Odometer.getOdometer();
+		reset(positionVariance, headingVariance);
+	}
+
+	/**
+	 * Starts tracking the pose: the odometer runs the prediction step and the
+	 * estimator listens to the sensors.
+	 *
+	 * @param lineDetector
+	 *            the detector of the downward colour sensor, null for none
+	 * @param rangePoller
+	 *            the poller of the front ultrasonic sensor, null for none
+	 */
+	public void start(LineDetector lineDetector, UltrasonicPoller rangePoller) {
+		this.lineDetector = lineDetector;
+		this.rangePoller = rangePoller;
+		odometer.setEstimator(this);
+		if (lineDetector != null)
+			lineDetector.addListener(this);
+		if (rangePoller != null)
+			rangePoller.addListener(this);
+	}
+
+	/**
+	 * Stops listening to the sensors and to the odometer
+	 */
+	public void stop() {
+		if (lineDetector != null)
+			lineDetector.removeListener(this);
+		if (rangePoller != null)
+			rangePoller.removeListener(this);
+		odometer.setEstimator(null);
+	}
+
+	/**
+	 * Sets the uncertainty of the pose, e.g. after the odometer was set by
+	 * the localization. x, y and the heading are assumed independent.
+	 *
+	 * @param positionVariance
+	 *            variance of x and y in cm^2
+	 * @param headingVariance
+	 *            variance of the heading in rad^2
+	 */
+	public synchronized void reset(double positionVariance,
+			double headingVariance) {
+		pxx = pyy = positionVariance;
+		ptt = headingVariance;
+		pxy = pxt = pyt = 0;
+	}
+
+	/**
+	 * A coordinate of the position was set from a grid line, e.g. by a
+	 * {@link LineCorrection}. Its variance becomes the one of the line, and
+	 * it is no longer correlated with the rest of the pose.
+	 *
+	 * @param isX
+	 *            true if x was set, false for y
+	 * @param variance
+	 *            variance of the coordinate in cm^2
+	 */
+	synchronized void constrain(boolean isX, double variance) {
+		if (isX) {
+			pxx = variance;
+			pxy = pxt = 0;
+		} else {
+			pyy = variance;
+			pxy = pyt = 0;
+		}
+	}
+
+	/**
+	 * The heading was set from grid lines, e.g. by a {@link LineCorrection}.
+	 * It is no longer correlated with the position.
+	 *
+	 * @param variance
+	 *            variance of the heading in rad^2
+	 */
+	synchronized void constrainHeading(double variance) {
+		ptt = variance;
+		pxt = pyt = 0;
+	}
+
+	/**
+	 * Prediction step, called by the odometer after every update with the
+	 * same movement it integrated. The movement is linearized along the
+	 * heading half way through the update.
+	 *
+	 * @param heading
+	 *            heading at the start of the update in rad
+	 * @param distL
+	 *            distance travelled by the left wheel in cm
+	 * @param distR
+	 *            distance travelled by the right wheel in cm
+	 * @param slipping
+	 *            true if a wheel slipped, the distances are then trusted
+	 *            less
+	 */
+	synchronized void predict(double heading, double distL, double distR,
+			boolean slipping) {
+		if (distL == 0 && distR == 0)
+			return;
+
+		double distance = 0.5 * (distL + distR);
+		double middle = heading + 0.5 * (distR - distL) / TRACK;
+		double cos = Math.cos(middle), sin = Math.sin(middle);
+
+		// Jacobian of the pose after the update with respect to the heading
+		// before it, the other entries of F are those of the identity
+		double a = -distance * sin, b = distance * cos;
+
+		// P = F P F^T
+		double nxx = pxx + 2 * a * pxt + a * a * ptt;
+		double nxy = pxy + a * pyt + b * pxt + a * b * ptt;
+		double nxt = pxt + a * ptt;
+		double nyy = pyy + 2 * b * pyt + b * b * ptt;
+		double nyt = pyt + b * ptt;
+
+		// Jacobian with respect to the distance of each wheel
+		double half = distance / (2 * TRACK);
+		double xL = 0.5 * cos + half * sin, xR = 0.5 * cos - half * sin;
+		double yL = 0.5 * sin - half * cos, yR = 0.5 * sin + half * cos;
+		double tL = -1 / TRACK, tR = 1 / TRACK;
+
+		// P += G Q G^T, the noise of each wheel grows with its distance
+		double variance = slipping ? SLIP_VARIANCE_GAIN * WHEEL_VARIANCE
+				: WHEEL_VARIANCE;
+		double qL = variance * Math.abs(distL);
+		double qR = variance * Math.abs(distR);
+
+		pxx = nxx + qL * xL * xL + qR * xR * xR;
+		pxy = nxy + qL * xL * yL + qR * xR * yR;
+		pxt = nxt + qL * xL * tL + qR * xR * tR;
+		pyy = nyy + qL * yL * yL + qR * yR * yR;
+		pyt = nyt + qL * yL * tL + qR * yR * tR;
+		ptt = ptt + qL * tL * tL + qR * tR * tR;
+	}
+
+	/**
+	 * The sensor was over a grid line. The line is assumed to be the one
+	 * closest to where the pose puts the sensor.
+	 */
+	@Override
+	public void lineCrossed(LineCrossing crossing) {
+		double direction = crossing.getTheta() + CS_DOWN_ANGLE;
+		double cos = Math.cos(direction), sin = Math.sin(direction);
+		double sensorX = crossing.getX() + CS_DOWN_TO_CENTER * cos;
+		double sensorY = crossing.getY() + CS_DOWN_TO_CENTER * sin;
+
+		// Distance from the sensor to the closest line of each direction
+		double toVertical = Math.rint(sensorX / TILE_WIDTH) * TILE_WIDTH
+				- sensorX;
+		double toHorizontal = Math.rint(sensorY / TILE_WIDTH) * TILE_WIDTH
+				- sensorY;
+
+		if (Math.abs(toVertical) < INTERSECTION_MARGIN
+				&& Math.abs(toHorizontal) < INTERSECTION_MARGIN)
+			return;
+
+		if (Math.abs(toVertical) < Math.abs(toHorizontal))
+			update(toVertical, 1, 0, -CS_DOWN_TO_CENTER * sin, LINE_VARIANCE,
+					GATE);
+		else
+			update(toHorizontal, 0, 1, CS_DOWN_TO_CENTER * cos, LINE_VARIANCE,
+					GATE);
+	}
+
+	/**
+	 * A ping of the front ultrasonic sensor. It is used when the beam points
+	 * straight enough at a wall, at the pose the robot had when it was taken.
+	 */
+	@Override
+	public void sampleReceived(float distance, long timestamp) {
+		if (distance <= 0 || distance > US_FRONT_CLIP - RANGE_MARGIN)
+			return;
+
+		odometer.poseAt(timestamp, pose);
+		double x = pose[0], y = pose[1];
+		double cos = Math.cos(pose[2]), sin = Math.sin(pose[2]);
+
+		// Distance from the center to the wall hit along each axis
+		double toWallX = Double.POSITIVE_INFINITY, wallX = 0;
+		if (Math.abs(cos) > 1e-6) {
+			wallX = cos > 0 ? WALL_MAX : WALL_MIN;
+			toWallX = (wallX - x) / cos;
+		}
+		double toWallY = Double.POSITIVE_INFINITY, wallY = 0;
+		if (Math.abs(sin) > 1e-6) {
+			wallY = sin > 0 ? WALL_MAX : WALL_MIN;
+			toWallY = (wallY - y) / sin;
+		}
+
+		if (toWallX < toWallY) {
+			if (Math.abs(cos) < MAX_INCIDENCE_COS)
+				return;
+			update(distance - (toWallX - US_TO_CENTER), -1 / cos, 0,
+					(wallX - x) * sin / (cos * cos), RANGE_VARIANCE,
+					SHORT_RANGE_GATE);
+		} else {
+			if (Math.abs(sin) < MAX_INCIDENCE_COS)
+				return;
+			update(distance - (toWallY - US_TO_CENTER), 0, -1 / sin,
+					-(wallY - y) * cos / (sin * sin), RANGE_VARIANCE,
+					SHORT_RANGE_GATE);
+		}
+	}
+
+	/**
+	 * Update step for a scalar measurement. The correction is applied to the
+	 * odometer after the covariance lock is released.
+	 *
+	 * @param innovation
+	 *            measured minus predicted value
+	 * @param hx
+	 *            derivative of the measurement with respect to x
+	 * @param hy
+	 *            derivative of the measurement with respect to y
+	 * @param ht
+	 *            derivative of the measurement with respect to the heading
+	 * @param variance
+	 *            variance of the measurement
+	 * @param negativeGate
+	 *            squared number of standard deviations over which a negative
+	 *            innovation is rejected, positive ones use {@link #GATE}
+	 */
+	private void update(double innovation, double hx, double hy, double ht,
+			double variance, double negativeGate) {
+		double dx, dy, dt;
+
+		synchronized (this) {
+			// P H^T
+			double ux = pxx * hx + pxy * hy + pxt * ht;
+			double uy = pxy * hx + pyy * hy + pyt * ht;
+			double ut = pxt * hx + pyt * hy + ptt * ht;
+
+			double s = hx * ux + hy * uy + ht * ut + variance;
+			double gate = innovation < 0 ? negativeGate : GATE;
+			if (innovation * innovation > gate * s) {
+				rejected++;
+				return;
+			}
+			accepted++;
+
+			// K = P H^T / s, the pose moves by K times the innovation
+			dx = ux / s * innovation;
+			dy = uy / s * innovation;
+			dt = ut / s * innovation;
+
+			// P = P - K H P
+			pxx -= ux * ux / s;
+			pxy -= ux * uy / s;
+			pxt -= ux * ut / s;
+			pyy -= uy * uy / s;
+			pyt -= uy * ut / s;
+			ptt -= ut * ut / s;
+		}
+
+		odometer.shift(dx, dy, dt);
+	}
+
+	/**
+	 * Copies the covariance of the pose
+	 *
+	 * @param dest
+	 *            array of at least 6 elements that receives the variances
+	 *            and covariances xx, xy, xtheta, yy, ytheta and thetatheta
+	 */
+	public synchronized void getCovariance(double[] dest) {
+		dest[0] = pxx;
+		dest[1] = pxy;
+		dest[2] = pxt;
+		dest[3] = pyy;
+		dest[4] = pyt;
+		dest[5] = ptt;
+	}
+
+	/**
+	 * Returns the standard deviation of the position along the direction in
+	 * which it is the least certain
+	 *
+	 * @return the largest standard deviation of the position in cm
+	 */
+	public synchronized double getPositionDeviation() {
+		// Largest eigenvalue of the position block of the covariance
+		double mean = 0.5 * (pxx + pyy), half = 0.5 * (pxx - pyy);
+		return Math.sqrt(mean + Math.sqrt(half * half + pxy * pxy));
+	}
+
+	/**
+	 * @return the standard deviation of the heading in rad
+	 */
+	public synchronized double getHeadingDeviation() {
+		return Math.sqrt(ptt);
+	}
+
+	/**
+	 * @return the variance of x in cm^2
+	 */
+	public synchronized double getVarianceX() {
+		return pxx;
+	}
+
+	/**
+	 * @return the variance of y in cm^2
+	 */
+	public synchronized double getVarianceY() {
+		return pyy;
+	}
+
+	/**
+	 * @return the variance of the heading in rad^2
+	 */
+	public synchronized double getVarianceTheta() {
+		return ptt;
+	}
+
+	/**
+	 * @return the number of measurements used since the estimator was created
+	 */
+	public long getAccepted() {
+		return accepted;
+	}
+
+	/**
+	 * @return the number of measurements rejected by the gate
+	 */
+	public long getRejected() {
+		return rejected;
+	}
+}
@@ -0,0 +1,180 @@
+package DPM_TEAM04.odometry;
+
+/**
+ * Remembers the last poses published by the odometer, so readings taken some
+ * time ago can be matched with where the robot was when they were taken.
+ *
+ * Poses are kept in fixed-size ring buffers of primitives, nothing is
+ * allocated when a pose is recorded or looked up with
+ * {@link #poseAt(long, double[])}.
+ *
+ * @author team04
+ *
+ */
+public class PoseHistory {
+
+	private final long[] times;
+	private final double[] xs, ys, thetas;
+	// Index of the next pose to write and number of poses kept
+	private int next, count;
+
+	/**
+	 * Creates a new PoseHistory
+	 *
+	 * @param size
+	 *            number of poses kept
+	 */
+	public PoseHistory(int size) {
+		this.times = new long[size];
+		this.xs = new double[size];
+		this.ys = new double[size];
+		this.thetas = new double[size];
+	}
+
+	/**
+	 * Records a pose, forgetting the oldest one if the history is full. Poses
+	 * must be recorded in chronological order.
+	 *
+	 * @param time
+	 *            {@link System#nanoTime()} of the pose
+	 * @param x
+	 *            x position in cm
+	 * @param y
+	 *            y position in cm
+	 * @param theta
+	 *            heading in rad
+	 */
+	public synchronized void record(long time, double x, double y,
+			double theta) {
+		times[next] = time;
+		xs[next] = x;
+		ys[next] = y;
+		thetas[next] = theta;
+		next = (next + 1) % times.length;
+		if (count < times.length)
+			count++;
+	}
+
+	/**
+	 * Moves the whole history as a rigid body so the pose at which the robot
+	 * was corrected ends up at the corrected pose. The movement of the robot
+	 * relative to that pose is kept.
+	 *
+	 * @param oldX
+	 *            x position before the correction
+	 * @param oldY
+	 *            y position before the correction
+	 * @param oldTheta
+	 *            heading before the correction
+	 * @param newX
+	 *            x position after the correction
+	 * @param newY
+	 *            y position after the correction
+	 * @param newTheta
+	 *            heading after the correction
+	 */
+	public synchronized void reanchor(double oldX, double oldY,
+			double oldTheta, double newX, double newY, double newTheta) {
+		double rotation = newTheta - oldTheta;
+		double cos = Math.cos(rotation), sin = Math.sin(rotation);
+
+		for (int i = 0; i < count; i++) {
+			double dx = xs[i] - oldX, dy = ys[i] - oldY;
+			xs[i] = newX + cos * dx - sin * dy;
+			ys[i] = newY + sin * dx + cos * dy;
+			thetas[i] = normalize(thetas[i] + rotation);
+		}
+	}
+
+	/**
+	 * Forgets all the poses
+	 */
+	public synchronized void clear() {
+		next = 0;
+		count = 0;
+	}
+
+	/**
+	 * Interpolates the pose of the robot at a given time. Times before the
+	 * oldest pose (or after the newest one) get the oldest (or newest) pose.
+	 *
+	 * @param time
+	 *            the {@link System#nanoTime()} to look up
+	 * @param dest
+	 *            array of at least 3 elements that receives x, y (in cm) and
+	 *            the heading (in rad, 0 <= theta < 2pi)
+	 * @return false if the history is empty, dest is then left untouched
+	 */
+	public synchronized boolean poseAt(long time, double[] dest) {
+		if (count == 0)
+			return false;
+
+		int oldest = (next - count + times.length) % times.length;
+		int newest = (next - 1 + times.length) % times.length;
+
+		if (time <= times[oldest]) {
+			copy(oldest, dest);
+			return true;
+		}
+		if (time >= times[newest]) {
+			copy(newest, dest);
+			return true;
+		}
+
+		// Binary search for the last pose recorded before the time, the
+		// poses are sorted by time from the oldest one
+		int low = 0, high = count - 1;
+		while (high - low > 1) {
+			int middle = (low + high) >>> 1;
+			if (times[(oldest + middle) % times.length] <= time)
+				low = middle;
+			else
+				high = middle;
+		}
+		int before = (oldest + low) % times.length;
+		int after = (oldest + high) % times.length;
+
+		double fraction = (time - times[before])
+				/ (double) (times[after] - times[before]);
+
+		dest[0] = xs[before] + fraction * (xs[after] - xs[before]);
+		dest[1] = ys[before] + fraction * (ys[after] - ys[before]);
+
+		// Interpolate along the shortest rotation
+		double change = thetas[after] - thetas[before];
+		if (change > Math.PI)
+			change -= 2.0 * Math.PI;
+		else if (change < -Math.PI)
+			change += 2.0 * Math.PI;
+		dest[2] = normalize(thetas[before] + fraction * change);
+		return true;
+	}
+
+	/**
+	 * Interpolates the pose of the robot at a given time, see
+	 * {@link #poseAt(long, double[])}
+	 *
+	 * @param time
+	 *            the {@link System#nanoTime()} to look up
+	 * @return the pose, null if the history is empty
+	 */
+	public Pose poseAt(long time) {
+		double[] pose = new double[3];
+		if (!poseAt(time, pose))
+			return null;
+		return new Pose(pose[0], pose[1], pose[2], time);
+	}
+
+	private void copy(int index, double[] dest) {
+		dest[0] = xs[index];
+		dest[1] = ys[index];
+		dest[2] = thetas[index];
+	}
+
+	private static double normalize(double theta) {
+		theta %= 2.0 * Math.PI;
+		if (theta < 0)
+			theta += 2.0 * Math.PI;
+		return theta;
+	}
+}
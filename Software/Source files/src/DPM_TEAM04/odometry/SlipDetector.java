@@ -0,0 +1,283 @@
+package DPM_TEAM04.odometry;
+
+import static DPM_TEAM04.Resources.leftMotor;
+import static DPM_TEAM04.Resources.rightMotor;
+
+import java.util.ArrayList;
+
+import lejos.hardware.motor.EV3LargeRegulatedMotor;
+
+/**
+ * Detects when the wheels do not move the way the driver commanded them to.
+ *
+ * For every rotation commanded by the {@link DPM_TEAM04.navigation.Driver},
+ * the detector runs the speed profile the motor regulator should follow:
+ * accelerate to the commanded speed, then slow down to stop on the target
+ * angle. After every odometer update, the rotation measured on each wheel
+ * over the last few updates is compared with the rotation of that profile.
+ * A wheel that lags (pushing a block, against a wall) or jumps ahead (lost
+ * traction when accelerating) starts a slip episode.
+ *
+ * The odometer tells the {@link PoseEstimator} about slips, which then
+ * trusts the wheels less, and episodes are kept with their start and end
+ * times to be logged.
+ *
+ * @author team04
+ *
+ */
+public class SlipDetector {
+
+	/**
+	 * A period during which a wheel slipped
+	 */
+	public static class Episode {
+		private final long start;
+		private final boolean isLeftWheel;
+		private volatile long end;
+		private volatile double worstError;
+
+		Episode(long start, boolean isLeftWheel) {
+			this.start = start;
+			this.isLeftWheel = isLeftWheel;
+		}
+
+		/**
+		 * @return the {@link System#nanoTime()} at which the slip started
+		 */
+		public long getStart() {
+			return start;
+		}
+
+		/**
+		 * @return the {@link System#nanoTime()} at which the slip ended, 0
+		 *         while it goes on
+		 */
+		public long getEnd() {
+			return end;
+		}
+
+		public boolean isLeftWheel() {
+			return isLeftWheel;
+		}
+
+		/**
+		 * @return the largest difference between the measured and expected
+		 *         rotation over the window, in deg
+		 */
+		public double getWorstError() {
+			return worstError;
+		}
+
+		@Override
+		public String toString() {
+			return (isLeftWheel ? "L " : "R ") + start / 1000000 + "-"
+					+ (end == 0 ? "" : String.valueOf(end / 1000000)) + "ms "
+					+ Math.round(worstError) + "deg";
+		}
+	}
+
+	// Updates over which the rotations are compared
+	private static final int WINDOW = 10;
+	// Allowed difference over the window: a part of the expected rotation and
+	// a constant part for the resolution of the tacho counter (deg)
+	private static final double RELATIVE_TOLERANCE = 0.25,
+			ABSOLUTE_TOLERANCE = 6;
+	// Updates out of (or back within) the tolerance to start (or end) a slip
+	private static final int MIN_UPDATES = 3;
+	private static final int MAX_EPISODES = 50;
+
+	private static final int LEFT = 0, RIGHT = 1;
+	private final EV3LargeRegulatedMotor[] motors = { leftMotor, rightMotor };
+
+	// Commanded motion of each wheel, read by the odometer thread
+	private final boolean[] isCommanded = new boolean[2];
+	private final int[] target = new int[2];
+	private final int[] commandedSpeed = new int[2];
+	private final double[] acceleration = new double[2];
+	// Updates since the rotation was commanded
+	private final int[] commandAge = new int[2];
+
+	// Speed profile of the regulator, and where it should have brought the
+	// wheel (deg)
+	private final double[] expectedSpeed = new double[2];
+	private final double[] expectedPosition = new double[2];
+
+	// Rotations measured and expected over the last updates
+	private final int[][] tachoWindow = new int[2][WINDOW];
+	private final double[][] expectedWindow = new double[2][WINDOW];
+	private int windowIndex, windowCount;
+
+	private final int[] outOfTolerance = new int[2];
+	private final int[] withinTolerance = new int[2];
+	private final Episode[] current = new Episode[2];
+	private final ArrayList<Episode> episodes = new ArrayList<>();
+	private volatile boolean isSlipping;
+	private volatile int totalEpisodes;
+
+	private long lastTime;
+
+	/**
+	 * Records a rotation commanded to a wheel. The wheel is checked until it
+	 * reaches the target or its motor gets another speed.
+	 *
+	 * @param isLeftWheel
+	 *            true for the left wheel
+	 * @param tachoCount
+	 *            tacho count of the motor when the rotation was commanded
+	 * @param angle
+	 *            the rotation in deg
+	 * @param speed
+	 *            the speed set on the motor in deg/s
+	 * @param acceleration
+	 *            the acceleration set on the motor in deg/s^2
+	 */
+	public synchronized void command(boolean isLeftWheel, int tachoCount,
+			int angle, int speed, int acceleration) {
+		int wheel = isLeftWheel ? LEFT : RIGHT;
+		this.target[wheel] = tachoCount + angle;
+		this.commandedSpeed[wheel] = speed;
+		this.acceleration[wheel] = acceleration;
+		this.isCommanded[wheel] = true;
+		this.commandAge[wheel] = 0;
+	}
+
+	/**
+	 * Checks the rotation of the wheels. Called by the odometer after every
+	 * update.
+	 *
+	 * @param time
+	 *            {@link System#nanoTime()} of the tacho counts
+	 * @param leftTacho
+	 *            tacho count of the left wheel
+	 * @param rightTacho
+	 *            tacho count of the right wheel
+	 * @return true if a wheel is slipping
+	 */
+	synchronized boolean update(long time, int leftTacho, int rightTacho) {
+		double dt = lastTime == 0 ? 0 : (time - lastTime) / 1e9;
+		lastTime = time;
+
+		advance(LEFT, leftTacho, dt);
+		advance(RIGHT, rightTacho, dt);
+
+		tachoWindow[LEFT][windowIndex] = leftTacho;
+		tachoWindow[RIGHT][windowIndex] = rightTacho;
+		expectedWindow[LEFT][windowIndex] = expectedPosition[LEFT];
+		expectedWindow[RIGHT][windowIndex] = expectedPosition[RIGHT];
+		windowIndex = (windowIndex + 1) % WINDOW;
+		if (windowCount < WINDOW) {
+			windowCount++;
+			return false;
+		}
+
+		// windowIndex is now the oldest entry
+		boolean slipping = check(LEFT, leftTacho, time);
+		slipping |= check(RIGHT, rightTacho, time);
+		isSlipping = slipping;
+		return slipping;
+	}
+
+	/**
+	 * Moves the speed profile of a wheel forward by one update. A wheel
+	 * without command is expected where it is measured.
+	 */
+	private void advance(int wheel, int tacho, double dt) {
+		// The command is over once the motor got another speed (driven
+		// directly, not by the driver) or stopped. The motor may not have
+		// started yet at the first update.
+		if (isCommanded[wheel]
+				&& (motors[wheel].getSpeed() != commandedSpeed[wheel] || (!motors[wheel]
+						.isMoving() && commandAge[wheel] > 1)))
+			isCommanded[wheel] = false;
+		commandAge[wheel]++;
+
+		if (!isCommanded[wheel]) {
+			expectedSpeed[wheel] = 0;
+			expectedPosition[wheel] = tacho;
+			return;
+		}
+
+		double remaining = target[wheel] - expectedPosition[wheel];
+		double direction = Math.signum(remaining);
+
+		// Fastest speed from which the wheel can still stop on the target
+		double stoppingSpeed = Math.sqrt(2 * acceleration[wheel]
+				* Math.abs(remaining));
+		double wanted = direction
+				* Math.min(commandedSpeed[wheel], stoppingSpeed);
+
+		double change = wanted - expectedSpeed[wheel];
+		double maxChange = acceleration[wheel] * dt;
+		expectedSpeed[wheel] += Math.max(-maxChange,
+				Math.min(maxChange, change));
+
+		double step = expectedSpeed[wheel] * dt;
+		if (Math.abs(step) > Math.abs(remaining))
+			step = remaining;
+		expectedPosition[wheel] += step;
+	}
+
+	/**
+	 * Compares the measured and expected rotations over the window, and
+	 * starts or ends a slip episode
+	 */
+	private boolean check(int wheel, int tacho, long time) {
+		double measured = tacho - tachoWindow[wheel][windowIndex];
+		double expected = expectedPosition[wheel]
+				- expectedWindow[wheel][windowIndex];
+		double error = Math.abs(measured - expected);
+		boolean isOut = isCommanded[wheel]
+				&& error > ABSOLUTE_TOLERANCE + RELATIVE_TOLERANCE
+						* Math.abs(expected);
+
+		if (isOut) {
+			withinTolerance[wheel] = 0;
+			if (++outOfTolerance[wheel] == MIN_UPDATES
+					&& current[wheel] == null) {
+				current[wheel] = new Episode(time, wheel == LEFT);
+				totalEpisodes++;
+				synchronized (episodes) {
+					if (episodes.size() == MAX_EPISODES)
+						episodes.remove(0);
+					episodes.add(current[wheel]);
+				}
+			}
+			if (current[wheel] != null)
+				current[wheel].worstError = Math.max(
+						current[wheel].worstError, error);
+		} else {
+			outOfTolerance[wheel] = 0;
+			if (current[wheel] != null
+					&& ++withinTolerance[wheel] == MIN_UPDATES) {
+				current[wheel].end = time;
+				current[wheel] = null;
+			}
+		}
+		return current[wheel] != null;
+	}
+
+	/**
+	 * @return true if a wheel slipped at the last update
+	 */
+	public boolean isSlipping() {
+		return isSlipping;
+	}
+
+	/**
+	 * Returns the last slip episodes
+	 *
+	 * @return a copy of the episodes, oldest first
+	 */
+	public ArrayList<Episode> getEpisodes() {
+		synchronized (episodes) {
+			return new ArrayList<>(episodes);
+		}
+	}
+
+	/**
+	 * @return the number of episodes since the detector was created
+	 */
+	public int getEpisodeCount() {
+		return totalEpisodes;
+	}
+}
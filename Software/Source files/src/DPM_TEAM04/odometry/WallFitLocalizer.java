@@ -0,0 +1,331 @@
+package DPM_TEAM04.odometry;
+
+import static DPM_TEAM04.Resources.MAP_DIMENSION;
+import static DPM_TEAM04.Resources.TILE_WIDTH;
+import DPM_TEAM04.geometry.LineFit;
+
+/**
+ * Localizes the robot in its starting corner by fitting lines to the two
+ * walls of the corner.
+ *
+ * Every range measured by an ultrasonic sensor while the robot rotates is
+ * turned into a point of the odometer frame. The points of each sensor are
+ * traced into straight segments as they arrive: a point far from the line
+ * of the segment in progress (after a second one, a single bad ping is
+ * skipped) ends it and starts a new one. Segments long and straight enough
+ * are kept as walls, merged with a wall already seen on the same line.
+ *
+ * Once two walls at a right angle are seen around the robot, the heading
+ * follows from the directions of their lines and the position from the
+ * distances of the robot to them. With two sensors pointing in different
+ * directions, both walls are usually seen within about half a rotation.
+ *
+ * @author team04
+ *
+ */
+public class WallFitLocalizer {
+
+	// Points of a segment before points can be rejected from it
+	private static final int SEED_POINTS = 3;
+	// Points too far from the segment in progress (cm), and how many of them
+	// in a row end it
+	private static final double LINE_TOLERANCE = 3.0;
+	private static final int MAX_OUTLIERS = 2;
+	// A segment is kept if it has enough points close enough to its line
+	private static final int MIN_POINTS = 8;
+	private static final double MAX_RESIDUAL = 2.0; // cm
+	// A wall of the corner must be long enough to give its direction, and
+	// longer if the sensor is still tracing it (cm)
+	private static final double MIN_LENGTH = 8.0, MIN_TRACE_LENGTH = 12.0;
+	// Walls on the same line are merged
+	private static final double MERGE_ANGLE = Math.toRadians(10),
+			MERGE_DISTANCE = 3.0; // cm
+	// Difference to a right angle allowed between the walls of the corner
+	private static final double CORNER_ANGLE = Math.toRadians(15);
+	private static final int MAX_WALLS = 12;
+
+	// Position of the walls, the origin is on the first grid line
+	private static final double WALL_MIN = -TILE_WIDTH,
+			WALL_MAX = (MAP_DIMENSION - 1) * TILE_WIDTH;
+
+	private final double maxRange;
+
+	// Segment in progress of each sensor and the point it last rejected
+	private final LineFit[] traces;
+	private final int[] outliers;
+	private final double[] outlierX, outlierY;
+
+	private final LineFit[] walls = new LineFit[MAX_WALLS];
+	private int wallCount;
+
+	// Lines that may be walls of the corner, filled by findCorner()
+	private final LineFit[] candidates;
+	// Walls of the corner found by the last call to findCorner(): the
+	// direction of their normals towards the robot and the distance of the
+	// robot to them. The second wall is a quarter turn counterclockwise from
+	// the first.
+	private double firstNormal, firstDistance, secondNormal, secondDistance;
+
+	private long readingCount;
+
+	/**
+	 * Creates a new WallFitLocalizer
+	 *
+	 * @param sensors
+	 *            the number of sensors adding readings
+	 * @param maxRange
+	 *            readings farther than this from the center of the robot (in
+	 *            cm) are left out, they are not from the walls of the corner
+	 */
+	public WallFitLocalizer(int sensors, double maxRange) {
+		this.maxRange = maxRange;
+		this.traces = new LineFit[sensors];
+		this.outliers = new int[sensors];
+		this.outlierX = new double[sensors];
+		this.outlierY = new double[sensors];
+		for (int i = 0; i < sensors; i++)
+			traces[i] = new LineFit();
+		for (int i = 0; i < MAX_WALLS; i++)
+			walls[i] = new LineFit();
+		this.candidates = new LineFit[MAX_WALLS + sensors];
+	}
+
+	/**
+	 * Forgets all the walls seen
+	 */
+	public synchronized void reset() {
+		for (int i = 0; i < traces.length; i++) {
+			traces[i].clear();
+			outliers[i] = 0;
+		}
+		wallCount = 0;
+	}
+
+	/**
+	 * Adds a range measured by a sensor
+	 *
+	 * @param sensor
+	 *            the index of the sensor
+	 * @param x
+	 *            x position of the robot when the range was measured, in cm
+	 * @param y
+	 *            y position of the robot when the range was measured, in cm
+	 * @param heading
+	 *            direction the sensor pointed to, in rad
+	 * @param range
+	 *            distance from the center of the robot to what was seen, in
+	 *            cm
+	 */
+	public synchronized void addReading(int sensor, double x, double y,
+			double heading, double range) {
+		readingCount++;
+		notifyAll();
+
+		LineFit trace = traces[sensor];
+		if (!(range > 0) || range > maxRange) {
+			endTrace(sensor);
+			return;
+		}
+		double pointX = x + range * Math.cos(heading);
+		double pointY = y + range * Math.sin(heading);
+
+		if (trace.getCount() >= SEED_POINTS
+				&& Math.abs(trace.distanceTo(pointX, pointY)) > LINE_TOLERANCE) {
+			if (++outliers[sensor] < MAX_OUTLIERS) {
+				outlierX[sensor] = pointX;
+				outlierY[sensor] = pointY;
+				return;
+			}
+			// The sensor moved on to something else, which the last
+			// rejected point was already on
+			endTrace(sensor);
+			trace.add(outlierX[sensor], outlierY[sensor]);
+		}
+		outliers[sensor] = 0;
+		trace.add(pointX, pointY);
+	}
+
+	/**
+	 * Waits for the next reading from any sensor
+	 */
+	public synchronized void awaitReading() {
+		long count = readingCount;
+		while (count == readingCount) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Checks if both walls of a corner are seen around a position
+	 *
+	 * @param x
+	 *            x position of the robot in cm
+	 * @param y
+	 *            y position of the robot in cm
+	 * @return true if the robot can be localized
+	 */
+	public synchronized boolean hasCorner(double x, double y) {
+		return findCorner(x, y, false);
+	}
+
+	/**
+	 * Computes the pose of the robot from the walls of its starting corner.
+	 * The segments in progress are ended first.
+	 *
+	 * @param corner
+	 *            the starting corner, 1 to 4
+	 * @param x
+	 *            x position of the robot in the odometer, in cm
+	 * @param y
+	 *            y position of the robot in the odometer, in cm
+	 * @param theta
+	 *            heading of the robot in the odometer, in rad
+	 * @param dest
+	 *            array of at least 3 elements that receives the x, y (in cm)
+	 *            and heading (in rad, 0 <= heading < 2pi) of the robot on the
+	 *            field
+	 * @return false if the walls of the corner were not seen, dest is then
+	 *         left untouched
+	 */
+	public synchronized boolean locate(int corner, double x, double y,
+			double theta, double[] dest) {
+		for (int i = 0; i < traces.length; i++)
+			endTrace(i);
+		if (!findCorner(x, y, true))
+			return false;
+
+		// Directions of the normals of the walls towards the field: the
+		// first wall of corner 1 is x = WALL_MIN, the others follow
+		// counterclockwise
+		double firstField = (corner - 1) * Math.PI / 2;
+		double secondField = firstField + Math.PI / 2;
+
+		// Rotation from the odometer to the field, averaged over both walls
+		double firstRotation = wrap(firstField - firstNormal);
+		double rotation = firstRotation
+				+ wrap(secondField - secondNormal - firstRotation) / 2;
+		double heading = (theta + rotation) % (2 * Math.PI);
+		if (heading < 0)
+			heading += 2 * Math.PI;
+
+		// Position from the distances to both walls, along their normals
+		double first = wallOffset(firstField) + firstDistance;
+		double second = wallOffset(secondField) + secondDistance;
+		dest[0] = first * Math.cos(firstField) + second
+				* Math.cos(secondField);
+		dest[1] = first * Math.sin(firstField) + second
+				* Math.sin(secondField);
+		dest[2] = heading;
+		return true;
+	}
+
+	/**
+	 * Ends the segment in progress of a sensor, keeping it as a wall if it
+	 * is long and straight enough
+	 */
+	private void endTrace(int sensor) {
+		LineFit trace = traces[sensor];
+		outliers[sensor] = 0;
+		if (isWall(trace)) {
+			LineFit same = null;
+			for (int i = 0; i < wallCount && same == null; i++)
+				if (isSameLine(walls[i], trace))
+					same = walls[i];
+			if (same != null)
+				same.merge(trace);
+			else if (wallCount < MAX_WALLS)
+				walls[wallCount++].set(trace);
+		}
+		trace.clear();
+	}
+
+	/**
+	 * Looks for two walls at a right angle around a position, keeping the
+	 * pair with the most points
+	 *
+	 * @param wallsOnly
+	 *            true to leave out the segments in progress
+	 */
+	private boolean findCorner(double x, double y, boolean wallsOnly) {
+		int count = 0;
+		for (int i = 0; i < wallCount; i++)
+			if (isAround(walls[i], x, y, MIN_LENGTH))
+				candidates[count++] = walls[i];
+		if (!wallsOnly)
+			for (LineFit trace : traces)
+				if (isWall(trace) && isAround(trace, x, y, MIN_TRACE_LENGTH))
+					candidates[count++] = trace;
+
+		int best = 0;
+		for (int i = 0; i < count; i++) {
+			double normalI = towards(candidates[i], x, y);
+			for (int j = 0; j < count; j++) {
+				double normalJ = towards(candidates[j], x, y);
+				if (Math.abs(wrap(normalJ - normalI - Math.PI / 2)) > CORNER_ANGLE)
+					continue;
+				int points = Math.min(candidates[i].getCount(),
+						candidates[j].getCount());
+				if (points > best) {
+					best = points;
+					firstNormal = normalI;
+					firstDistance = Math.abs(candidates[i].distanceTo(x, y));
+					secondNormal = normalJ;
+					secondDistance = Math.abs(candidates[j].distanceTo(x, y));
+				}
+			}
+		}
+		return best > 0;
+	}
+
+	/**
+	 * @return true if a line is long enough and close enough to a position
+	 *         to be a wall of the corner the robot is in
+	 */
+	private static boolean isAround(LineFit fit, double x, double y,
+			double minLength) {
+		return fit.getLength() >= minLength
+				&& Math.abs(fit.distanceTo(x, y)) <= TILE_WIDTH;
+	}
+
+	private static boolean isWall(LineFit fit) {
+		return fit.getCount() >= MIN_POINTS
+				&& fit.getResidual() <= MAX_RESIDUAL;
+	}
+
+	private static boolean isSameLine(LineFit a, LineFit b) {
+		double angle = wrap(a.getNormal() - b.getNormal());
+		// The same line may have its normal flipped
+		if (Math.abs(angle) > Math.PI / 2)
+			return Math.abs(wrap(angle - Math.PI)) < MERGE_ANGLE
+					&& Math.abs(a.getDistance() + b.getDistance()) < MERGE_DISTANCE;
+		return Math.abs(angle) < MERGE_ANGLE
+				&& Math.abs(a.getDistance() - b.getDistance()) < MERGE_DISTANCE;
+	}
+
+	/**
+	 * @return the direction of the normal of a line that points towards a
+	 *         position
+	 */
+	private static double towards(LineFit line, double x, double y) {
+		return line.distanceTo(x, y) >= 0 ? line.getNormal() : wrap(line
+				.getNormal() + Math.PI);
+	}
+
+	/**
+	 * @return the position along its normal of the wall whose normal towards
+	 *         the field has a direction, a multiple of pi/2
+	 */
+	private static double wallOffset(double normal) {
+		return Math.round(Math.cos(normal) + Math.sin(normal)) > 0 ? WALL_MIN
+				: -WALL_MAX;
+	}
+
+	private static double wrap(double angle) {
+		return Math.IEEEremainder(angle, 2 * Math.PI);
+	}
+}
@@ -0,0 +1,283 @@
+package DPM_TEAM04.sensing;
+
+import static DPM_TEAM04.Resources.getColorRGB;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Decides whether the object in front of the front colour sensor is a
+ * styrofoam block or an obstacle.
+ *
+ * A short burst of RGB samples is averaged and normalized by its intensity,
+ * so only the chromaticity (the share of red and green in the total) is left.
+ * The chromaticity is quantized and looked up in a table that gives the class
+ * and the confidence of every cell. The table is built from a calibration run
+ * (see {@link #addCalibrationSample(Type, float[])}) and saved to a file. If
+ * no calibration was saved, the table reproduces the old rule: a block is an
+ * object that reflects more green than red and blue.
+ *
+ * @author team04
+ *
+ */
+public class BlockClassifier {
+
+	/**
+	 * Classes an object can belong to
+	 */
+	public enum Type {
+		NONE, BLOCK, OBSTACLE
+	}
+
+	private static final Type[] TYPES = Type.values();
+
+	// Below this intensity (sum of R, G and B) nothing is in front of the
+	// sensor
+	private static final float MIN_INTENSITY = 0.01f;
+	// Time between two samples of a burst, in ms
+	private static final int BURST_DELAY = 5;
+
+	private final int levels;
+	private final int burstSize;
+
+	// Class (ordinal of Type) and confidence of every cell, indexed by
+	// red level * levels + green level
+	private final byte[] classTable;
+	private final float[] confidenceTable;
+	// Samples seen in every cell for every class during calibration
+	private int[][] calibrationCounts;
+
+	private final float[] rgb = new float[3];
+	private final float[] average = new float[3];
+	private float confidence;
+
+	/**
+	 * Creates a new BlockClassifier using the default green rule until it is
+	 * calibrated
+	 *
+	 * @param levels
+	 *            number of quantization levels of each chromaticity
+	 * @param burstSize
+	 *            number of samples averaged by {@link #classify()}
+	 */
+	public BlockClassifier(int levels, int burstSize) {
+		this.levels = levels;
+		this.burstSize = burstSize;
+		this.classTable = new byte[levels * levels];
+		this.confidenceTable = new float[levels * levels];
+		buildDefaultTable();
+	}
+
+	/**
+	 * Creates a new BlockClassifier with the table saved in a file, or the
+	 * default green rule if the file cannot be read.
+	 *
+	 * @param levels
+	 *            number of quantization levels, must match the saved table
+	 * @param burstSize
+	 *            number of samples averaged by {@link #classify()}
+	 * @param tableFile
+	 *            file written by {@link #save(File)}
+	 * @return the classifier
+	 */
+	public static BlockClassifier load(int levels, int burstSize,
+			File tableFile) {
+		BlockClassifier classifier = new BlockClassifier(levels, burstSize);
+		if (!tableFile.exists())
+			return classifier;
+
+		try (DataInputStream in = new DataInputStream(new FileInputStream(
+				tableFile))) {
+			if (in.readInt() != levels)
+				return classifier;
+			for (int i = 0; i < classifier.classTable.length; i++) {
+				classifier.classTable[i] = in.readByte();
+				classifier.confidenceTable[i] = in.readFloat();
+			}
+		} catch (IOException e) {
+			classifier.buildDefaultTable();
+		}
+		return classifier;
+	}
+
+	/**
+	 * Saves the table so it can be loaded with
+	 * {@link #load(int, int, File)}
+	 *
+	 * @param tableFile
+	 *            the file to write
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public synchronized void save(File tableFile) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(
+				tableFile))) {
+			out.writeInt(levels);
+			for (int i = 0; i < classTable.length; i++) {
+				out.writeByte(classTable[i]);
+				out.writeFloat(confidenceTable[i]);
+			}
+		}
+	}
+
+	/**
+	 * Averages a burst of samples of the front colour sensor and classifies
+	 * it. The confidence of the result is then returned by
+	 * {@link #getConfidence()}.
+	 *
+	 * @return the class of the object in front of the sensor
+	 */
+	public synchronized Type classify() {
+		average[0] = average[1] = average[2] = 0;
+		int count = 0;
+		while (count < burstSize) {
+			getColorRGB(rgb);
+			average[0] += rgb[0];
+			average[1] += rgb[1];
+			average[2] += rgb[2];
+			if (++count < burstSize) {
+				try {
+					Thread.sleep(BURST_DELAY);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		average[0] /= count;
+		average[1] /= count;
+		average[2] /= count;
+		return classify(average);
+	}
+
+	/**
+	 * Classifies an RGB sample
+	 *
+	 * @param sample
+	 *            the R, G and B values
+	 * @return the class of the sample
+	 */
+	public synchronized Type classify(float[] sample) {
+		int cell = cellOf(sample);
+		if (cell < 0) {
+			confidence = 1;
+			return Type.NONE;
+		}
+		confidence = confidenceTable[cell];
+		return TYPES[classTable[cell]];
+	}
+
+	/**
+	 * Returns the confidence of the last classification
+	 *
+	 * @return the confidence, from 0 (a guess) to 1 (certain)
+	 */
+	public synchronized float getConfidence() {
+		return confidence;
+	}
+
+	/**
+	 * Records a sample of a known object during a calibration run. The table
+	 * is only changed by {@link #buildTable()}.
+	 *
+	 * @param type
+	 *            the class of the object in front of the sensor
+	 * @param sample
+	 *            the R, G and B values
+	 */
+	public synchronized void addCalibrationSample(Type type, float[] sample) {
+		int cell = cellOf(sample);
+		if (cell < 0)
+			return;
+		if (calibrationCounts == null)
+			calibrationCounts = new int[classTable.length][TYPES.length];
+		calibrationCounts[cell][type.ordinal()]++;
+	}
+
+	/**
+	 * Builds the table from the calibration samples. Every cell takes the
+	 * class seen most often in it, with the share of that class as
+	 * confidence. Cells without samples take the class of the nearest cell
+	 * that has some, with a confidence that decreases with the distance.
+	 */
+	public synchronized void buildTable() {
+		if (calibrationCounts == null)
+			return;
+
+		boolean[] calibrated = new boolean[classTable.length];
+		for (int cell = 0; cell < classTable.length; cell++) {
+			int total = 0, best = 0;
+			for (int t = 0; t < TYPES.length; t++) {
+				total += calibrationCounts[cell][t];
+				if (calibrationCounts[cell][t] > calibrationCounts[cell][best])
+					best = t;
+			}
+			if (total > 0) {
+				calibrated[cell] = true;
+				classTable[cell] = (byte) best;
+				confidenceTable[cell] = calibrationCounts[cell][best]
+						/ (float) total;
+			}
+		}
+
+		for (int cell = 0; cell < classTable.length; cell++) {
+			if (calibrated[cell])
+				continue;
+			int nearest = -1, nearestDistance = Integer.MAX_VALUE;
+			for (int other = 0; other < classTable.length; other++) {
+				if (!calibrated[other])
+					continue;
+				int dr = other / levels - cell / levels;
+				int dg = other % levels - cell % levels;
+				int distance = dr * dr + dg * dg;
+				if (distance < nearestDistance) {
+					nearest = other;
+					nearestDistance = distance;
+				}
+			}
+			if (nearest >= 0) {
+				classTable[cell] = classTable[nearest];
+				confidenceTable[cell] = confidenceTable[nearest]
+						/ (1 + (float) Math.sqrt(nearestDistance));
+			}
+		}
+	}
+
+	/**
+	 * Fills the table with the rule used before calibration: green dominant
+	 * objects are blocks. The confidence grows with the margin of the
+	 * dominant channel.
+	 */
+	private void buildDefaultTable() {
+		for (int cell = 0; cell < classTable.length; cell++) {
+			float r = (cell / levels + 0.5f) / levels;
+			float g = (cell % levels + 0.5f) / levels;
+			float b = 1 - r - g;
+			float margin = g - Math.max(r, b);
+			classTable[cell] = (byte) (margin > 0 ? Type.BLOCK : Type.OBSTACLE)
+					.ordinal();
+			confidenceTable[cell] = Math.min(1, 3 * Math.abs(margin));
+		}
+	}
+
+	/**
+	 * Finds the cell of a sample
+	 *
+	 * @param sample
+	 *            the R, G and B values
+	 * @return the index of the cell, -1 if nothing is in front of the sensor
+	 */
+	private int cellOf(float[] sample) {
+		float intensity = sample[0] + sample[1] + sample[2];
+		if (!(intensity >= MIN_INTENSITY))
+			return -1;
+
+		int r = (int) (sample[0] / intensity * levels);
+		int g = (int) (sample[1] / intensity * levels);
+		return Math.min(r, levels - 1) * levels + Math.min(g, levels - 1);
+	}
+}
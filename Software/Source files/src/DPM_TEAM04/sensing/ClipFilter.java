@@ -0,0 +1,43 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Caps samples to a range. NaN samples are treated as the maximum.
+ *
+ * @author team04
+ *
+ */
+public class ClipFilter implements FilterStage {
+
+	private final float min, max;
+
+	/**
+	 * Creates a new ClipFilter
+	 *
+	 * @param min
+	 *            smallest value returned
+	 * @param max
+	 *            largest value returned
+	 */
+	public ClipFilter(float min, float max) {
+		this.min = min;
+		this.max = max;
+	}
+
+	@Override
+	public float filter(float sample) {
+		if (sample > max || Float.isNaN(sample))
+			return max;
+		if (sample < min)
+			return min;
+		return sample;
+	}
+
+	@Override
+	public double getDelay() {
+		return 0;
+	}
+
+	@Override
+	public void reset() {
+	}
+}
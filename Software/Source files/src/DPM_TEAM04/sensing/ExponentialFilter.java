@@ -0,0 +1,53 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Exponential smoothing, the cheapest low-pass filter: each sample moves the
+ * output by a fraction of the difference. Infinite samples cannot be averaged
+ * and are passed through, restarting the smoothing.
+ *
+ * @author team04
+ *
+ */
+public class ExponentialFilter implements FilterStage {
+
+	private final float alpha;
+	private float value;
+	private boolean firstSample;
+
+	/**
+	 * Creates a new ExponentialFilter
+	 *
+	 * @param alpha
+	 *            weight of the new sample, between 0 (never changes) and 1
+	 *            (no filtering)
+	 */
+	public ExponentialFilter(float alpha) {
+		this.alpha = alpha;
+		this.firstSample = true;
+	}
+
+	@Override
+	public float filter(float sample) {
+		if (Float.isNaN(sample))
+			return value;
+
+		if (firstSample || Float.isInfinite(sample)
+				|| Float.isInfinite(value)) {
+			value = sample;
+			firstSample = false;
+		} else {
+			value += alpha * (sample - value);
+		}
+		return value;
+	}
+
+	@Override
+	public double getDelay() {
+		return (1.0 - alpha) / alpha;
+	}
+
+	@Override
+	public void reset() {
+		firstSample = true;
+	}
+}
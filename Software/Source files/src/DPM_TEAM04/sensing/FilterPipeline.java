@@ -0,0 +1,44 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Chains filter stages, the output of each stage being the input of the next
+ * one. An empty pipeline returns samples unchanged.
+ *
+ * @author team04
+ *
+ */
+public class FilterPipeline implements FilterStage {
+
+	private final FilterStage[] stages;
+
+	/**
+	 * Creates a new FilterPipeline
+	 *
+	 * @param stages
+	 *            the stages to apply, in order
+	 */
+	public FilterPipeline(FilterStage... stages) {
+		this.stages = stages;
+	}
+
+	@Override
+	public float filter(float sample) {
+		for (int i = 0; i < stages.length; i++)
+			sample = stages[i].filter(sample);
+		return sample;
+	}
+
+	@Override
+	public double getDelay() {
+		double delay = 0;
+		for (int i = 0; i < stages.length; i++)
+			delay += stages[i].getDelay();
+		return delay;
+	}
+
+	@Override
+	public void reset() {
+		for (int i = 0; i < stages.length; i++)
+			stages[i].reset();
+	}
+}
@@ -0,0 +1,35 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * One stage of a sensor filter. Stages are chained in a
+ * {@link FilterPipeline} and run on every sample, so implementations keep
+ * their state in primitive fields and arrays allocated once and must not
+ * allocate in {@link #filter(float)}.
+ *
+ * @author team04
+ *
+ */
+public interface FilterStage {
+
+	/**
+	 * Filters one sample
+	 *
+	 * @param sample
+	 *            the new sample
+	 * @return the filtered value
+	 */
+	public float filter(float sample);
+
+	/**
+	 * Returns how late the filtered value is compared to the latest sample,
+	 * used to know when a filtered value was really measured.
+	 *
+	 * @return the delay, in number of samples
+	 */
+	public double getDelay();
+
+	/**
+	 * Forgets all previous samples
+	 */
+	public void reset();
+}
@@ -0,0 +1,110 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Applies its own filter to every sample of an {@link UltrasonicPoller} and
+ * publishes the result. Several taps can listen to the same poller, so each
+ * consumer only pays for the filtering it needs (a short median reacts
+ * faster than the default 15-sample one).
+ *
+ * @author team04
+ *
+ */
+public class FilterTap implements SampleListener {
+
+	private final UltrasonicPoller poller;
+	private final FilterStage filter;
+
+	// Published values, guarded by this
+	private float value;
+	private long timestamp, sampleCount;
+
+	/**
+	 * Creates a new FilterTap. It does nothing until started.
+	 *
+	 * @param poller
+	 *            the poller of the sensor to filter
+	 * @param filter
+	 *            the filter applied to every sample (in cm)
+	 */
+	public FilterTap(UltrasonicPoller poller, FilterStage filter) {
+		this.poller = poller;
+		this.filter = filter;
+		this.value = Float.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Resets the filter and starts receiving samples
+	 */
+	public void start() {
+		synchronized (this) {
+			filter.reset();
+		}
+		poller.addListener(this);
+	}
+
+	/**
+	 * Stops receiving samples
+	 */
+	public void stop() {
+		poller.removeListener(this);
+	}
+
+	@Override
+	public synchronized void sampleReceived(float distance, long timestamp) {
+		this.value = filter.filter(distance);
+		this.timestamp = timestamp;
+		this.sampleCount++;
+		notifyAll();
+	}
+
+	/**
+	 * Returns the latest filtered value without waiting for the sensor.
+	 *
+	 * @return the filtered distance in cm, positive infinity if no sample
+	 *         was received yet
+	 */
+	public synchronized float getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns the time at which the latest filtered sample was taken.
+	 *
+	 * @return the {@link System#nanoTime()} of the latest ping, 0 if no ping
+	 *         was received yet
+	 */
+	public synchronized long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Waits for a number of new samples and returns the filtered value.
+	 *
+	 * @param newSamples
+	 *            number of new samples to wait for
+	 * @return the filtered distance in cm
+	 */
+	public synchronized float awaitValue(int newSamples) {
+		long target = sampleCount + newSamples;
+		while (sampleCount < target) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				// return whatever was published last
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Returns how late the filtered value is compared to the ping it is
+	 * published with.
+	 *
+	 * @return the delay introduced by the filter in ns
+	 */
+	public long getDelay() {
+		return (long) (filter.getDelay() * poller.getSamplePeriod());
+	}
+}
@@ -0,0 +1,54 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Describes one grid line crossed by the downward colour sensor: where the
+ * robot was (position of its center and heading) when the sensor was over
+ * the middle of the line.
+ *
+ * @author team04
+ *
+ */
+public class LineCrossing {
+
+	private final long timestamp;
+	private final double x, y, theta;
+
+	/**
+	 * Creates a new LineCrossing
+	 *
+	 * @param timestamp
+	 *            {@link System#nanoTime()} at which the sensor was over the
+	 *            line
+	 * @param x
+	 *            x coordinate of the robot at that time
+	 * @param y
+	 *            y coordinate of the robot at that time
+	 * @param theta
+	 *            heading of the robot at that time in rad (POLAR_RAD)
+	 */
+	public LineCrossing(long timestamp, double x, double y, double theta) {
+		this.timestamp = timestamp;
+		this.x = x;
+		this.y = y;
+		this.theta = theta;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @return the heading of the robot in rad, 0 <= theta < 2pi
+	 */
+	public double getTheta() {
+		return theta;
+	}
+}
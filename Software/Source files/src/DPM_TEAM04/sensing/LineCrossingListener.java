@@ -0,0 +1,19 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Receives the grid lines detected by a {@link LineDetector}. Called on the
+ * detector thread, implementations must return quickly.
+ *
+ * @author team04
+ *
+ */
+public interface LineCrossingListener {
+
+	/**
+	 * Called once for every line crossed
+	 *
+	 * @param crossing
+	 *            where the robot was when the sensor crossed the line
+	 */
+	public void lineCrossed(LineCrossing crossing);
+}
@@ -0,0 +1,175 @@
+package DPM_TEAM04.sensing;
+
+import static DPM_TEAM04.Resources.getDownCSData;
+
+import java.util.ArrayList;
+
+import DPM_TEAM04.odometry.Odometer;
+
+/**
+ * Continuously samples the red channel of the downward colour sensor and
+ * notifies its listeners every time a grid line is crossed.
+ *
+ * A line is detected the same way as in OdometryCorrection: the difference
+ * between two samples taken 50 ms apart rises above a threshold when the
+ * sensor enters the line and drops below another when it leaves it, both
+ * within one second. Samples are taken much more often than every 50 ms, so
+ * each difference is computed against the sample taken 50 ms earlier, which
+ * keeps the thresholds found by experimentation while locating the line more
+ * precisely. The extrema of the differences over the last second are
+ * maintained with a {@link SlidingExtrema}, so each sample costs O(1).
+ *
+ * The time of every sample is recorded, and the pose reported for a crossing
+ * is looked up in the odometer history at the moment the sensor was over the
+ * middle of the line.
+ *
+ * @author team04
+ *
+ */
+public class LineDetector extends Thread {
+
+	// Numbers were found by experimentation to detect the line, on samples
+	// scaled by 1000 and differences taken 50 ms apart
+	private static final float SCALE = 1000;
+	private static final float MAX_THRESHOLD = 70, MIN_THRESHOLD = -30;
+	private static final int DIFFERENCE_PERIOD = 50; // in ms
+	private static final int WINDOW_PERIOD = 1000; // in ms
+
+	private final int samplePeriod;
+	private final int lag;
+	private final SlidingExtrema differences;
+
+	// Ring buffers of the raw samples and of the time they were taken,
+	// indexed by sample count
+	private final float[] samples;
+	private final long[] times;
+	private final double[] pose = new double[3];
+	private long sampleCount, firstDifference;
+
+	private final ArrayList<LineCrossingListener> listeners;
+	private final Odometer odometer;
+
+	/**
+	 * Creates a new LineDetector. It must be started to detect lines.
+	 *
+	 * @param samplePeriod
+	 *            time between two samples in ms, should divide 50
+	 */
+	public LineDetector(int samplePeriod) {
+		this.samplePeriod = samplePeriod;
+		this.lag = Math.max(1, DIFFERENCE_PERIOD / samplePeriod);
+		this.differences = new SlidingExtrema(WINDOW_PERIOD / samplePeriod);
+
+		int capacity = differences.getWindowSize() + lag + 1;
+		this.samples = new float[capacity];
+		this.times = new long[capacity];
+		this.firstDifference = lag;
+
+		this.listeners = new ArrayList<>();
+		this.odometer = Odometer.getOdometer();
+
+		setDaemon(true);
+	}
+
+	/**
+	 * Registers a listener that is notified of every line crossed
+	 *
+	 * @param listener
+	 *            the listener to add
+	 */
+	public void addListener(LineCrossingListener listener) {
+		synchronized (listeners) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Removes a listener added with
+	 * {@link #addListener(LineCrossingListener)}
+	 *
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public void removeListener(LineCrossingListener listener) {
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	@Override
+	public void run() {
+		long start, end;
+
+		while (!this.isInterrupted()) {
+			start = System.currentTimeMillis();
+
+			// Fetch the sample and the time it was taken at
+			int slot = (int) (sampleCount % samples.length);
+			samples[slot] = getDownCSData() * SCALE;
+			times[slot] = System.nanoTime();
+
+			if (sampleCount >= firstDifference) {
+				// Difference with the sample taken 50 ms earlier
+				float earlier = samples[(int) ((sampleCount - lag) % samples.length)];
+				differences.add(earlier - samples[slot]);
+
+				if (differences.isFull()
+						&& differences.getMax() >= MAX_THRESHOLD
+						&& differences.getMin() <= MIN_THRESHOLD) {
+
+					LineCrossing crossing = locateLine(firstDifference
+							+ differences.getMaxIndex(), firstDifference
+							+ differences.getMinIndex());
+
+					// Start over as we don't want to detect the same line
+					// twice
+					differences.reset();
+					firstDifference = sampleCount + 1;
+
+					synchronized (listeners) {
+						for (int i = 0; i < listeners.size(); i++)
+							listeners.get(i).lineCrossed(crossing);
+					}
+				}
+			}
+			sampleCount++;
+
+			// this ensures the sensor is sampled only once every period
+			end = System.currentTimeMillis();
+			if (end - start < samplePeriod) {
+				try {
+					Thread.sleep(samplePeriod - (end - start));
+				} catch (InterruptedException e) {
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the pose at which the sensor was over the middle of the line.
+	 *
+	 * @param enter
+	 *            sample count of the largest difference (entering the line)
+	 * @param leave
+	 *            sample count of the smallest difference (leaving the line)
+	 * @return the line crossing
+	 */
+	private LineCrossing locateLine(long enter, long leave) {
+
+		// A difference ending at sample i describes the change centered on
+		// i - lag / 2. The line is half way between entering and leaving it.
+		double center = (enter + leave - lag) / 2.0;
+		long before = (long) Math.floor(center);
+		double fraction = center - before;
+
+		int i0 = (int) (before % samples.length);
+		int i1 = (int) ((before + 1) % samples.length);
+
+		long timestamp = times[i0]
+				+ (long) (fraction * (times[i1] - times[i0]));
+		odometer.poseAt(timestamp, pose);
+
+		return new LineCrossing(timestamp, pose[0], pose[1], pose[2]);
+	}
+}
@@ -0,0 +1,124 @@
+package DPM_TEAM04.sensing;
+
+import java.util.Arrays;
+
+/**
+ * Streaming sliding-window median filter. The window is kept sorted at all
+ * times, so each new sample only evicts the oldest one and is inserted at its
+ * place (found by binary search) instead of sorting the whole window again. A
+ * fresh median is available after every sample.
+ *
+ * @author team04
+ *
+ */
+public class MedianFilter implements FilterStage {
+
+	// Samples in the order they arrived, used to know which one to evict
+	private final float[] history;
+	// The same samples, sorted
+	private final float[] sorted;
+	private int historyIndex, count;
+
+	private final float clip;
+	private float median;
+
+	/**
+	 * Creates a new MedianFilter that does not cap its output
+	 *
+	 * @param windowSize
+	 *            number of samples the median is computed over
+	 */
+	public MedianFilter(int windowSize) {
+		this(windowSize, Float.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Creates a new MedianFilter
+	 *
+	 * @param windowSize
+	 *            number of samples the median is computed over
+	 * @param clip
+	 *            maximum value returned, medians above it are capped
+	 */
+	public MedianFilter(int windowSize, float clip) {
+		this.history = new float[windowSize];
+		this.sorted = new float[windowSize];
+		this.clip = clip;
+		this.median = clip;
+	}
+
+	/**
+	 * Adds a sample to the window, evicting the oldest one if the window is
+	 * full.
+	 *
+	 * @param sample
+	 *            the new sample. NaN samples are treated as infinitely far.
+	 * @return the median of the window, capped at the clip value
+	 */
+	@Override
+	public float filter(float sample) {
+		if (Float.isNaN(sample))
+			sample = Float.POSITIVE_INFINITY;
+
+		// Remove the oldest sample from the sorted window
+		if (count == history.length) {
+			int evict = Arrays.binarySearch(sorted, 0, count,
+					history[historyIndex]);
+			System.arraycopy(sorted, evict + 1, sorted, evict, count - evict
+					- 1);
+			count--;
+		}
+
+		// Insert the new sample at its place
+		int insert = Arrays.binarySearch(sorted, 0, count, sample);
+		if (insert < 0)
+			insert = -(insert + 1);
+		System.arraycopy(sorted, insert, sorted, insert + 1, count - insert);
+		sorted[insert] = sample;
+		count++;
+
+		history[historyIndex] = sample;
+		historyIndex = (historyIndex + 1) % history.length;
+
+		// Acquire median from middle of the window
+		median = sorted[count / 2];
+		if (median > clip)
+			median = clip;
+
+		return median;
+	}
+
+	/**
+	 * Returns the median computed on the last call to {@link #filter(float)}
+	 *
+	 * @return the median of the window, capped at the clip value. Returns the
+	 *         clip value if no sample was filtered yet.
+	 */
+	public float getMedian() {
+		return median;
+	}
+
+	@Override
+	public double getDelay() {
+		return (history.length - 1) / 2.0;
+	}
+
+	/**
+	 * Empties the window
+	 */
+	@Override
+	public void reset() {
+		count = 0;
+		historyIndex = 0;
+		median = clip;
+	}
+
+	/**
+	 * Returns the number of samples the median is computed over
+	 *
+	 * @return the size of the window
+	 */
+	public int getWindowSize() {
+		return history.length;
+	}
+}
@@ -0,0 +1,71 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Sliding-window mean, kept up to date with a running sum so each sample
+ * costs the same whatever the window size. Cheaper than a median but
+ * sensitive to outliers, so it is usually placed after an
+ * {@link OutlierFilter} or a {@link ClipFilter}.
+ *
+ * @author team04
+ *
+ */
+public class MovingMeanFilter implements FilterStage {
+
+	private final float[] window;
+	private int index, count;
+
+	// Sum of the finite samples and number of infinite ones in the window
+	private double sum;
+	private int infiniteCount;
+
+	/**
+	 * Creates a new MovingMeanFilter
+	 *
+	 * @param windowSize
+	 *            number of samples the mean is computed over
+	 */
+	public MovingMeanFilter(int windowSize) {
+		this.window = new float[windowSize];
+	}
+
+	@Override
+	public float filter(float sample) {
+		if (Float.isNaN(sample))
+			sample = Float.POSITIVE_INFINITY;
+
+		// Remove the oldest sample
+		if (count == window.length) {
+			if (Float.isInfinite(window[index]))
+				infiniteCount--;
+			else
+				sum -= window[index];
+		} else {
+			count++;
+		}
+
+		if (Float.isInfinite(sample))
+			infiniteCount++;
+		else
+			sum += sample;
+
+		window[index] = sample;
+		index = (index + 1) % window.length;
+
+		if (infiniteCount > 0)
+			return Float.POSITIVE_INFINITY;
+		return (float) (sum / count);
+	}
+
+	@Override
+	public double getDelay() {
+		return (window.length - 1) / 2.0;
+	}
+
+	@Override
+	public void reset() {
+		index = 0;
+		count = 0;
+		sum = 0;
+		infiniteCount = 0;
+	}
+}
@@ -0,0 +1,63 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Rejects samples that jump too far from the last accepted one and repeats
+ * the last accepted value instead. If the jump persists for more than a given
+ * number of samples it is accepted, as the distance really changed.
+ *
+ * @author team04
+ *
+ */
+public class OutlierFilter implements FilterStage {
+
+	private final float maxJump;
+	private final int maxRejected;
+
+	private float value;
+	private int rejected;
+	private boolean firstSample;
+
+	/**
+	 * Creates a new OutlierFilter
+	 *
+	 * @param maxJump
+	 *            largest difference with the last accepted value that is
+	 *            accepted right away
+	 * @param maxRejected
+	 *            number of consecutive samples rejected before a jump is
+	 *            accepted
+	 */
+	public OutlierFilter(float maxJump, int maxRejected) {
+		this.maxJump = maxJump;
+		this.maxRejected = maxRejected;
+		this.firstSample = true;
+	}
+
+	@Override
+	public float filter(float sample) {
+		if (Float.isNaN(sample))
+			return value;
+
+		if (firstSample || sample == value
+				|| Math.abs(sample - value) <= maxJump
+				|| rejected >= maxRejected) {
+			value = sample;
+			rejected = 0;
+			firstSample = false;
+		} else {
+			rejected++;
+		}
+		return value;
+	}
+
+	@Override
+	public double getDelay() {
+		return 0;
+	}
+
+	@Override
+	public void reset() {
+		rejected = 0;
+		firstSample = true;
+	}
+}
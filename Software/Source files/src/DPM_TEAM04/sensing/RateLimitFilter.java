@@ -0,0 +1,53 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Limits how much the output can change from one sample to the next.
+ *
+ * @author team04
+ *
+ */
+public class RateLimitFilter implements FilterStage {
+
+	private final float maxChange;
+	private float value;
+	private boolean firstSample;
+
+	/**
+	 * Creates a new RateLimitFilter
+	 *
+	 * @param maxChange
+	 *            largest change of the output per sample
+	 */
+	public RateLimitFilter(float maxChange) {
+		this.maxChange = maxChange;
+		this.firstSample = true;
+	}
+
+	@Override
+	public float filter(float sample) {
+		if (Float.isNaN(sample))
+			return value;
+
+		if (firstSample) {
+			value = sample;
+			firstSample = false;
+		} else if (sample > value + maxChange) {
+			value += maxChange;
+		} else if (sample < value - maxChange) {
+			value -= maxChange;
+		} else {
+			value = sample;
+		}
+		return value;
+	}
+
+	@Override
+	public double getDelay() {
+		return 0;
+	}
+
+	@Override
+	public void reset() {
+		firstSample = true;
+	}
+}
@@ -0,0 +1,23 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Receives every raw ping of an {@link UltrasonicPoller}, before any
+ * filtering. Listeners filter the pings themselves if needed, e.g. with a
+ * {@link FilterTap}. They are called on the thread that pings the sensor, so
+ * they must return quickly and should not allocate.
+ *
+ * @author team04
+ *
+ */
+public interface SampleListener {
+
+	/**
+	 * Called once for every new ping
+	 *
+	 * @param distance
+	 *            the raw distance of the ping in cm
+	 * @param timestamp
+	 *            the {@link System#nanoTime()} at which the ping was taken
+	 */
+	public void sampleReceived(float distance, long timestamp);
+}
@@ -0,0 +1,155 @@
+package DPM_TEAM04.sensing;
+
+import static DPM_TEAM04.Resources.SPEED_FORWARD;
+import static DPM_TEAM04.Resources.getFrontUSPoller;
+import static DPM_TEAM04.Resources.getSideUSPoller;
+import static DPM_TEAM04.Resources.isHoldingBlock;
+import static DPM_TEAM04.Resources.isLocalizing;
+import static DPM_TEAM04.Resources.isSearching;
+import static DPM_TEAM04.Resources.leftMotor;
+import static DPM_TEAM04.Resources.rightMotor;
+import static DPM_TEAM04.Resources.usScheduler;
+import DPM_TEAM04.navigation.ObstacleAvoidance;
+
+/**
+ * Adjusts the rate of the ultrasonic sensors to what the robot is doing, so
+ * the CPU is left to the odometer and control loops when fast data is not
+ * needed.
+ *
+ * The rate of each sensor is chosen from the current task (localizing,
+ * searching, avoiding an obstacle, carrying a block) and scaled by the
+ * commanded speed of the wheels. A parked robot only pings at the idle rate,
+ * except for a sensor a thread waits for a full filter window from: it is
+ * raised to the window rate right away, so the window fills about as fast as
+ * when the pings were read in a loop.
+ *
+ * @author team04
+ *
+ */
+public class SamplingGovernor extends Thread {
+
+	// Pings per second
+	private static final double IDLE_RATE = 5;
+	private static final double SCAN_RATE = 60;
+	private static final double TRAVEL_RATE_MIN = 15, TRAVEL_RATE_MAX = 50;
+	private static final double WALL_FOLLOW_RATE = 40;
+	// A full window of 15 pings in under 200 ms, leaving the other sensor
+	// enough slots for its travel rate. Both sensors waiting share the slots.
+	private static final double WINDOW_RATE = 80;
+
+	private final int period;
+	private final UltrasonicPoller front, side;
+	private final Object lock = new Object();
+	private boolean isAdjustRequested;
+
+	/**
+	 * Creates a new SamplingGovernor. The ultrasonic sensors are initialized
+	 * if they are not yet.
+	 *
+	 * @param period
+	 *            time between two adjustments in ms
+	 */
+	public SamplingGovernor(int period) {
+		this.period = period;
+		this.front = getFrontUSPoller();
+		this.side = getSideUSPoller();
+		front.setGovernor(this);
+		side.setGovernor(this);
+
+		setDaemon(true);
+	}
+
+	/**
+	 * Adjusts the rates now instead of at the end of the period, e.g. when a
+	 * thread starts waiting for a full filter window
+	 */
+	public void adjust() {
+		synchronized (lock) {
+			isAdjustRequested = true;
+			lock.notifyAll();
+		}
+	}
+
+	@Override
+	public void run() {
+		double frontRate, sideRate;
+
+		while (!this.isInterrupted()) {
+
+			// Commanded speed of the fastest wheel, relative to the travelling
+			// speed
+			double speed = 0;
+			if (leftMotor.isMoving() || rightMotor.isMoving())
+				speed = Math.min(1.0,
+						Math.max(leftMotor.getSpeed(), rightMotor.getSpeed())
+								/ (double) SPEED_FORWARD);
+
+			if (speed == 0) {
+				// Parked, e.g. stacking blocks or waiting for the wifi data
+				frontRate = IDLE_RATE;
+				sideRate = IDLE_RATE;
+			} else if (ObstacleAvoidance.getIsAvoiding()) {
+				// Following the obstacle with the side sensor
+				frontRate = TRAVEL_RATE_MAX;
+				sideRate = WALL_FOLLOW_RATE;
+			} else if (isLocalizing || isSearching && !isHoldingBlock) {
+				// Rotating scans only use the front sensor
+				frontRate = SCAN_RATE;
+				sideRate = isLocalizing ? TRAVEL_RATE_MIN : IDLE_RATE;
+			} else {
+				// Travelling, obstacles come closer faster at high speed
+				frontRate = TRAVEL_RATE_MIN + speed
+						* (TRAVEL_RATE_MAX - TRAVEL_RATE_MIN);
+				sideRate = IDLE_RATE;
+			}
+
+			// Waiting for a full window, e.g. while parked to check a block
+			boolean frontWindow = front.isAwaitingWindow();
+			boolean sideWindow = side.isAwaitingWindow();
+			int slots = usScheduler.getSlotsPerSecond();
+			if (frontWindow && sideWindow) {
+				frontRate = slots / 2;
+				sideRate = slots / 2;
+			} else if (frontWindow) {
+				frontRate = WINDOW_RATE;
+				sideRate = Math.min(sideRate, slots - WINDOW_RATE);
+			} else if (sideWindow) {
+				sideRate = WINDOW_RATE;
+				frontRate = Math.min(frontRate, slots - WINDOW_RATE);
+			}
+
+			// Free slots before taking them, so the plan never overflows
+			if (frontRate > usScheduler.getRate(front)) {
+				setRate(side, Math.round(sideRate));
+				setRate(front, Math.round(frontRate));
+			} else {
+				setRate(front, Math.round(frontRate));
+				setRate(side, Math.round(sideRate));
+			}
+
+			try {
+				synchronized (lock) {
+					if (!isAdjustRequested)
+						lock.wait(period);
+					isAdjustRequested = false;
+				}
+			} catch (InterruptedException e) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Changes the rate of a sensor if it changed
+	 */
+	private void setRate(UltrasonicPoller poller, double rate) {
+		if (usScheduler.getRate(poller) == rate)
+			return;
+		try {
+			usScheduler.setRate(poller, rate);
+		} catch (IllegalArgumentException e) {
+			// Keep the previous rate, the other sensor frees its slots on the
+			// next adjustment
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package DPM_TEAM04.sensing;
+
+import java.util.Arrays;
+
+import DPM_TEAM04.odometry.Odometer;
+
+/**
+ * Assembles the pings of an ultrasonic sensor into a polar scan while the
+ * robot rotates.
+ *
+ * Every ping is filtered by the assembler's own filter. A filtered reading
+ * describes where the sensor pointed some time before it was published (the
+ * filter delay), so each reading is placed at the heading the robot had at
+ * that time, looked up in the pose history of the odometer. Readings are
+ * binned by angle, keeping the smallest distance per bin, and a complete scan
+ * is published every full rotation.
+ *
+ * @author team04
+ *
+ */
+public class ScanAssembler implements SampleListener {
+
+	private final UltrasonicPoller poller;
+	private final FilterStage filter;
+	private final Odometer odometer;
+	private final double binWidth;
+	private final double[] pose = new double[3];
+
+	// Bins of the rotation in progress and of the last complete rotation, in
+	// cm. Bins without any reading hold positive infinity.
+	private final float[] bins;
+	private final float[] scan;
+	private boolean isComplete, isStarted;
+	private int scanCount;
+
+	private boolean firstSample;
+	private double rotated, lastHeading, readingHeading;
+	private float lastDistance;
+	private long sampleCount;
+
+	/**
+	 * Creates a new ScanAssembler. It does nothing until started.
+	 *
+	 * @param poller
+	 *            the poller of the sensor to assemble scans from
+	 * @param filter
+	 *            the filter applied to every ping (in cm). A short filter
+	 *            lets the robot rotate faster.
+	 * @param numBins
+	 *            number of angular bins in a full rotation
+	 */
+	public ScanAssembler(UltrasonicPoller poller, FilterStage filter,
+			int numBins) {
+		this.poller = poller;
+		this.filter = filter;
+		this.odometer = Odometer.getOdometer();
+		this.binWidth = 2.0 * Math.PI / numBins;
+		this.bins = new float[numBins];
+		this.scan = new float[numBins];
+		reset();
+	}
+
+	/**
+	 * Clears the scan and starts receiving samples, if not already receiving
+	 * them
+	 */
+	public void start() {
+		synchronized (this) {
+			reset();
+			if (isStarted)
+				return;
+			isStarted = true;
+		}
+		poller.addListener(this);
+	}
+
+	/**
+	 * Stops receiving samples. The bins collected so far are kept.
+	 */
+	public void stop() {
+		synchronized (this) {
+			if (!isStarted)
+				return;
+			isStarted = false;
+		}
+		poller.removeListener(this);
+	}
+
+	private void reset() {
+		Arrays.fill(bins, Float.POSITIVE_INFINITY);
+		Arrays.fill(scan, Float.POSITIVE_INFINITY);
+		isComplete = false;
+		firstSample = true;
+		rotated = 0.0;
+		filter.reset();
+	}
+
+	@Override
+	public synchronized void sampleReceived(float rawDistance, long timestamp) {
+
+		float distance = filter.filter(rawDistance);
+
+		// The filtered reading describes the pings of a few periods ago
+		odometer.poseAt(timestamp
+				- (long) (filter.getDelay() * poller.getSamplePeriod()), pose);
+		double heading = pose[2];
+
+		// Keep track of how much the robot rotated since the scan started
+		if (firstSample) {
+			firstSample = false;
+		} else {
+			double change = Math.abs(heading - lastHeading);
+			if (change > Math.PI)
+				change = 2.0 * Math.PI - change;
+			rotated += change;
+		}
+		lastHeading = heading;
+		lastDistance = distance;
+		sampleCount++;
+
+		int bin = (int) (heading / binWidth) % bins.length;
+		if (distance < bins[bin])
+			bins[bin] = distance;
+
+		// Publish a complete scan every full rotation
+		if (rotated >= 2.0 * Math.PI) {
+			rotated -= 2.0 * Math.PI;
+			System.arraycopy(bins, 0, scan, 0, bins.length);
+			Arrays.fill(bins, Float.POSITIVE_INFINITY);
+			isComplete = true;
+			scanCount++;
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Copies the last complete scan, or the bins collected so far if the
+	 * robot has not done a full rotation yet.
+	 *
+	 * @param dest
+	 *            array of at least {@link #getNumBins()} elements that
+	 *            receives the distance (in cm) seen in each bin, positive
+	 *            infinity if nothing was seen in a bin
+	 * @return true if a complete rotation was copied
+	 */
+	public synchronized boolean getScan(float[] dest) {
+		System.arraycopy(isComplete ? scan : bins, 0, dest, 0, bins.length);
+		return isComplete;
+	}
+
+	/**
+	 * Waits for the rotation in progress to complete and copies its scan
+	 *
+	 * @param dest
+	 *            array of at least {@link #getNumBins()} elements that
+	 *            receives the distance (in cm) seen in each bin
+	 */
+	public synchronized void awaitScan(float[] dest) {
+		int count = scanCount;
+		while (count == scanCount) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		System.arraycopy(scan, 0, dest, 0, scan.length);
+	}
+
+	/**
+	 * Waits for the next reading. The heading it describes, corrected for the
+	 * filter delay, is then returned by {@link #getReadingHeading()}, even if
+	 * more readings arrived since.
+	 *
+	 * @return the distance in cm, filtered by the assembler's filter
+	 */
+	public synchronized float awaitReading() {
+		long count = sampleCount;
+		while (count == sampleCount) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		readingHeading = lastHeading;
+		return lastDistance;
+	}
+
+	/**
+	 * Returns the corrected heading of the reading returned by the last call
+	 * to {@link #awaitReading()}
+	 *
+	 * @return the heading in rad (0 <= heading < 2pi)
+	 */
+	public synchronized double getReadingHeading() {
+		return readingHeading;
+	}
+
+	/**
+	 * Returns the corrected heading of the latest reading
+	 *
+	 * @return the heading in rad (0 <= heading < 2pi) at which the latest
+	 *         reading was taken
+	 */
+	public synchronized double getLastHeading() {
+		return lastHeading;
+	}
+
+	/**
+	 * Returns the latest reading received
+	 *
+	 * @return the distance in cm, filtered by the assembler's filter
+	 */
+	public synchronized float getLastDistance() {
+		return lastDistance;
+	}
+
+	/**
+	 * Returns the heading at the center of a bin
+	 *
+	 * @param bin
+	 *            the index of the bin
+	 * @return the heading in rad
+	 */
+	public double getBinAngle(int bin) {
+		return (bin + 0.5) * binWidth;
+	}
+
+	public int getNumBins() {
+		return bins.length;
+	}
+}
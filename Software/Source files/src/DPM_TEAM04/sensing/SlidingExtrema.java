@@ -0,0 +1,142 @@
+package DPM_TEAM04.sensing;
+
+/**
+ * Tracks the maximum and the minimum of the last samples of a stream. Each
+ * extremum is kept with a monotonic deque of sample indices: a sample that
+ * can never become the extremum again (an older, smaller sample for the
+ * maximum) is dropped as soon as a newer one arrives. Adding a sample is O(1)
+ * amortized and reading the extrema is O(1), instead of scanning the whole
+ * window every sample. All storage is primitive and allocated once.
+ *
+ * Samples are identified by their index in the stream (0 for the first sample
+ * added after a reset), so callers can keep data associated with a sample in
+ * their own ring buffers.
+ *
+ * @author team04
+ *
+ */
+public class SlidingExtrema {
+
+	private final float[] values;
+	private long count;
+
+	// Circular deques of sample indices. Values are decreasing from head to
+	// tail in the max deque and increasing in the min deque.
+	private final long[] maxDeque, minDeque;
+	private int maxHead, maxSize, minHead, minSize;
+
+	/**
+	 * Creates a new SlidingExtrema
+	 *
+	 * @param windowSize
+	 *            number of samples the extrema are computed over
+	 */
+	public SlidingExtrema(int windowSize) {
+		this.values = new float[windowSize];
+		this.maxDeque = new long[windowSize];
+		this.minDeque = new long[windowSize];
+	}
+
+	/**
+	 * Adds a sample to the window, evicting the oldest one if the window is
+	 * full.
+	 *
+	 * @param value
+	 *            the new sample
+	 * @return the index of the sample in the stream
+	 */
+	public long add(float value) {
+		int n = values.length;
+		long index = count++;
+		values[(int) (index % n)] = value;
+
+		// Evict the sample that just left the window
+		if (maxSize > 0 && maxDeque[maxHead] <= index - n) {
+			maxHead = (maxHead + 1) % n;
+			maxSize--;
+		}
+		if (minSize > 0 && minDeque[minHead] <= index - n) {
+			minHead = (minHead + 1) % n;
+			minSize--;
+		}
+
+		// Drop samples that can no longer be the extremum
+		while (maxSize > 0
+				&& valueAt(maxDeque[(maxHead + maxSize - 1) % n]) <= value)
+			maxSize--;
+		maxDeque[(maxHead + maxSize) % n] = index;
+		maxSize++;
+
+		while (minSize > 0
+				&& valueAt(minDeque[(minHead + minSize - 1) % n]) >= value)
+			minSize--;
+		minDeque[(minHead + minSize) % n] = index;
+		minSize++;
+
+		return index;
+	}
+
+	private float valueAt(long index) {
+		return values[(int) (index % values.length)];
+	}
+
+	/**
+	 * @return the largest sample in the window, NaN if the window is empty
+	 */
+	public float getMax() {
+		return maxSize == 0 ? Float.NaN : valueAt(maxDeque[maxHead]);
+	}
+
+	/**
+	 * @return the smallest sample in the window, NaN if the window is empty
+	 */
+	public float getMin() {
+		return minSize == 0 ? Float.NaN : valueAt(minDeque[minHead]);
+	}
+
+	/**
+	 * @return the stream index of the largest sample in the window (the most
+	 *         recent one if several are equal), -1 if the window is empty
+	 */
+	public long getMaxIndex() {
+		return maxSize == 0 ? -1 : maxDeque[maxHead];
+	}
+
+	/**
+	 * @return the stream index of the smallest sample in the window (the
+	 *         most recent one if several are equal), -1 if the window is
+	 *         empty
+	 */
+	public long getMinIndex() {
+		return minSize == 0 ? -1 : minDeque[minHead];
+	}
+
+	/**
+	 * @return true if the window contains as many samples as its size
+	 */
+	public boolean isFull() {
+		return count >= values.length;
+	}
+
+	/**
+	 * @return the number of samples added since the last reset
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	public int getWindowSize() {
+		return values.length;
+	}
+
+	/**
+	 * Empties the window. Stream indices start again at 0.
+	 */
+	public void reset() {
+		count = 0;
+		maxHead = 0;
+		maxSize = 0;
+		minHead = 0;
+		minSize = 0;
+	}
+}
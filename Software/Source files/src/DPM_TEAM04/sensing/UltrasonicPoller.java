@@ -0,0 +1,262 @@
+package DPM_TEAM04.sensing;
+
+import java.util.ArrayList;
+
+import lejos.robotics.SampleProvider;
+
+/**
+ * Owns an ultrasonic sensor. The sensor is pinged in the time slots given to
+ * it by an {@link UltrasonicScheduler}, never directly by the threads that
+ * read it. Every ping is timestamped and passed, in cm, to the registered
+ * {@link SampleListener}s. The poller also runs a default filter over the
+ * pings and publishes the result. Readers never wait for the sensor, they get
+ * the latest published value.
+ *
+ * @author team04
+ *
+ */
+public class UltrasonicPoller {
+
+	private final SampleProvider sensor;
+	private final float[] sample;
+	private final ArrayList<SampleListener> listeners;
+	private final FilterTap defaultTap;
+
+	// Average time between two pings and average deviation from the period
+	// planned by the scheduler, in ns, measured by the poller. Only changed
+	// by the scheduler thread.
+	private volatile double averagePeriod, jitter;
+	private double plannedPeriod;
+	private long lastPingTime;
+	// Period planned from the thread that sets the rates, applied by the
+	// next ping
+	private double requestedPeriod = -1;
+	private volatile double pendingPeriod;
+	private volatile boolean isPeriodChanged;
+	private volatile float rawDistance;
+
+	// Threads waiting for a full filter window, and the governor that
+	// raises the rate while there are any. Guarded by this.
+	private int windowWaiters;
+	private SamplingGovernor governor;
+
+	/**
+	 * Creates a new UltrasonicPoller. The poller must be added to an
+	 * {@link UltrasonicScheduler} before any data is published.
+	 *
+	 * @param sensor
+	 *            the ultrasonic sensor in "Distance" mode
+	 * @param filter
+	 *            the filter used for the default published value
+	 */
+	public UltrasonicPoller(SampleProvider sensor, FilterStage filter) {
+		this.sensor = sensor;
+		this.sample = new float[sensor.sampleSize()];
+		this.listeners = new ArrayList<>();
+		this.rawDistance = Float.POSITIVE_INFINITY;
+		this.defaultTap = new FilterTap(this, filter);
+		this.defaultTap.start();
+	}
+
+	/**
+	 * Pings the sensor once and publishes the reading. Only called by the
+	 * scheduler thread.
+	 */
+	void ping() {
+		sensor.fetchSample(sample, 0);
+		long pingTime = System.nanoTime();
+
+		// The measured period starts over when the planned one changed. The
+		// flag is cleared first, so a period set meanwhile is not lost.
+		if (isPeriodChanged) {
+			isPeriodChanged = false;
+			plannedPeriod = pendingPeriod;
+			averagePeriod = plannedPeriod;
+			jitter = 0;
+			lastPingTime = 0;
+		}
+
+		// Running averages of the actual ping period and of its deviation
+		// from the planned one
+		if (lastPingTime != 0) {
+			long period = pingTime - lastPingTime;
+			averagePeriod += 0.1 * (period - averagePeriod);
+			jitter += 0.1 * (Math.abs(period - plannedPeriod) - jitter);
+		}
+		lastPingTime = pingTime;
+		rawDistance = sample[0];
+
+		// Scale up by 100 to get value in centimeters
+		float distance = sample[0] * 100;
+
+		synchronized (listeners) {
+			for (int i = 0; i < listeners.size(); i++)
+				listeners.get(i).sampleReceived(distance, pingTime);
+		}
+	}
+
+	/**
+	 * Sets the period the scheduler plans to ping the sensor at. If it
+	 * changed, the measured period starts over from it at the next ping.
+	 * Called with the lock of the scheduler held.
+	 *
+	 * @param period
+	 *            the planned period in ns
+	 */
+	void setPlannedPeriod(double period) {
+		if (period == requestedPeriod)
+			return;
+		requestedPeriod = period;
+		pendingPeriod = period;
+		isPeriodChanged = true;
+	}
+
+	/**
+	 * Sets the governor told when a thread starts waiting for a full filter
+	 * window
+	 */
+	synchronized void setGovernor(SamplingGovernor governor) {
+		this.governor = governor;
+	}
+
+	/**
+	 * Returns whether a thread is waiting for a full filter window, the
+	 * sensor should then ping fast whatever the robot is doing
+	 *
+	 * @return true if a call to {@link #awaitDistance(int)} for more than one
+	 *         ping is pending
+	 */
+	public synchronized boolean isAwaitingWindow() {
+		return windowWaiters > 0;
+	}
+
+	/**
+	 * Registers a listener that receives every sample
+	 *
+	 * @param listener
+	 *            the listener to add
+	 */
+	public void addListener(SampleListener listener) {
+		synchronized (listeners) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Removes a listener added with {@link #addListener(SampleListener)}
+	 *
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public void removeListener(SampleListener listener) {
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Returns the measured time between two pings
+	 *
+	 * @return the average ping period in ns
+	 */
+	public double getSamplePeriod() {
+		return averagePeriod;
+	}
+
+	/**
+	 * Returns the measured ping rate
+	 *
+	 * @return the average number of pings per second
+	 */
+	public double getRate() {
+		return averagePeriod > 0 ? 1e9 / averagePeriod : 0;
+	}
+
+	/**
+	 * Returns how irregular the pings are
+	 *
+	 * @return the average deviation of the ping period from the planned one,
+	 *         in ns
+	 */
+	public double getJitter() {
+		return jitter;
+	}
+
+	/**
+	 * Returns how late the default filtered value is compared to the ping it
+	 * is published with.
+	 *
+	 * @return the delay introduced by the default filter in ns
+	 */
+	public long getFilterDelay() {
+		return defaultTap.getDelay();
+	}
+
+	/**
+	 * Returns the latest filtered distance without waiting for the sensor.
+	 *
+	 * @return the distance in cm, filtered by the default filter
+	 */
+	public float getDistance() {
+		return defaultTap.getValue();
+	}
+
+	/**
+	 * Returns the latest unfiltered reading without waiting for the sensor.
+	 *
+	 * @return the last raw distance in m
+	 */
+	public float getRawDistance() {
+		return rawDistance;
+	}
+
+	/**
+	 * Returns the time at which the latest published ping was taken.
+	 *
+	 * @return the {@link System#nanoTime()} of the latest ping, 0 if no ping
+	 *         was taken yet
+	 */
+	public long getTimestamp() {
+		return defaultTap.getTimestamp();
+	}
+
+	/**
+	 * Waits for the next ping to be published and returns its filtered
+	 * distance. This blocks for at most one sample period, never for a full
+	 * median window.
+	 *
+	 * @return the distance in cm, filtered by the default filter
+	 */
+	public float awaitDistance() {
+		return awaitDistance(1);
+	}
+
+	/**
+	 * Waits for a number of new pings to be published and returns the
+	 * filtered distance. Waiting for a full window guarantees the median only
+	 * contains samples taken after the call, e.g. once the robot stopped.
+	 *
+	 * @param newSamples
+	 *            number of new pings to wait for
+	 * @return the distance in cm, filtered by the default filter
+	 */
+	public float awaitDistance(int newSamples) {
+		if (newSamples <= 1)
+			return defaultTap.awaitValue(newSamples);
+
+		SamplingGovernor governor;
+		synchronized (this) {
+			windowWaiters++;
+			governor = this.governor;
+		}
+		if (governor != null)
+			governor.adjust();
+		try {
+			return defaultTap.awaitValue(newSamples);
+		} finally {
+			synchronized (this) {
+				windowWaiters--;
+			}
+		}
+	}
+}
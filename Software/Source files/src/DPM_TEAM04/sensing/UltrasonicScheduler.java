@@ -0,0 +1,193 @@
+package DPM_TEAM04.sensing;
+
+import java.util.ArrayList;
+
+/**
+ * Pings all the ultrasonic sensors from a single thread, following a fixed
+ * plan of time slots. Only one sensor is pinged per slot, so two sensors never
+ * ping at the same time and cannot hear each other's echo.
+ *
+ * The plan covers one second. Every sensor is given as many slots as its rate
+ * (in pings per second), spread as evenly as possible over the plan, so its
+ * rate is guaranteed as long as all the rates fit in the available slots.
+ * Slots start at a fixed rate; a slot that is late does not delay the ones
+ * after it.
+ *
+ * @author team04
+ *
+ */
+public class UltrasonicScheduler extends Thread {
+
+	private final long slotLength;
+	private final int slotsPerPlan;
+
+	private final ArrayList<UltrasonicPoller> pollers;
+	private final ArrayList<Double> rates;
+
+	// Poller pinged in every slot, null if the slot is free
+	private volatile UltrasonicPoller[] plan;
+	private volatile long missedSlots;
+
+	/**
+	 * Creates a new UltrasonicScheduler. It must be started to ping the
+	 * sensors.
+	 *
+	 * @param slotLength
+	 *            length of a time slot in ms, long enough for one ping
+	 */
+	public UltrasonicScheduler(int slotLength) {
+		this.slotLength = slotLength * 1000000L;
+		this.slotsPerPlan = 1000 / slotLength;
+		this.pollers = new ArrayList<>();
+		this.rates = new ArrayList<>();
+		this.plan = new UltrasonicPoller[slotsPerPlan];
+
+		setDaemon(true);
+	}
+
+	/**
+	 * Adds a sensor to the plan
+	 *
+	 * @param poller
+	 *            the poller of the sensor
+	 * @param rate
+	 *            number of pings per second
+	 * @throws IllegalArgumentException
+	 *             if there are not enough free slots for this rate
+	 */
+	public synchronized void addSensor(UltrasonicPoller poller, double rate) {
+		pollers.add(poller);
+		rates.add(rate);
+		try {
+			buildPlan();
+		} catch (IllegalArgumentException e) {
+			pollers.remove(pollers.size() - 1);
+			rates.remove(rates.size() - 1);
+			throw e;
+		}
+	}
+
+	/**
+	 * Changes the rate of a sensor already in the plan
+	 *
+	 * @param poller
+	 *            the poller of the sensor
+	 * @param rate
+	 *            number of pings per second, 0 to stop pinging it
+	 * @throws IllegalArgumentException
+	 *             if there are not enough free slots for this rate
+	 */
+	public synchronized void setRate(UltrasonicPoller poller, double rate) {
+		int index = pollers.indexOf(poller);
+		if (index < 0)
+			throw new IllegalArgumentException("Sensor is not scheduled");
+
+		double previous = rates.set(index, rate);
+		try {
+			buildPlan();
+		} catch (IllegalArgumentException e) {
+			rates.set(index, previous);
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the planned rate of a sensor
+	 *
+	 * @param poller
+	 *            the poller of the sensor
+	 * @return number of pings per second, 0 if the sensor is not scheduled
+	 */
+	public synchronized double getRate(UltrasonicPoller poller) {
+		int index = pollers.indexOf(poller);
+		return index < 0 ? 0 : rates.get(index);
+	}
+
+	/**
+	 * Returns how many pings all the sensors can share
+	 *
+	 * @return the number of slots per second
+	 */
+	public int getSlotsPerSecond() {
+		return slotsPerPlan;
+	}
+
+	/**
+	 * Returns the number of slots that started too late to be used since the
+	 * scheduler started
+	 *
+	 * @return the number of missed slots
+	 */
+	public long getMissedSlots() {
+		return missedSlots;
+	}
+
+	/**
+	 * Spreads the slots of every sensor over the plan. Every slot, each
+	 * sensor earns a fraction of a ping proportional to its rate, and the
+	 * sensor that earned the most whole pings is pinged.
+	 */
+	private void buildPlan() {
+		double load = 0;
+		for (int i = 0; i < rates.size(); i++)
+			load += rates.get(i);
+		if (load > slotsPerPlan)
+			throw new IllegalArgumentException("Ultrasonic sensors need "
+					+ load + " pings per second, only " + slotsPerPlan
+					+ " slots are available");
+
+		UltrasonicPoller[] newPlan = new UltrasonicPoller[slotsPerPlan];
+		double[] credit = new double[pollers.size()];
+		for (int i = 0; i < credit.length; i++)
+			credit[i] = 0.5; // round the number of pings in the plan
+
+		for (int slot = 0; slot < slotsPerPlan; slot++) {
+			int best = -1;
+			for (int i = 0; i < credit.length; i++) {
+				credit[i] += rates.get(i) / slotsPerPlan;
+				if (credit[i] >= 1 - 1e-9
+						&& (best < 0 || credit[i] > credit[best]))
+					best = i;
+			}
+			if (best >= 0) {
+				newPlan[slot] = pollers.get(best);
+				credit[best] -= 1;
+			}
+		}
+
+		for (int i = 0; i < pollers.size(); i++) {
+			double rate = rates.get(i);
+			pollers.get(i).setPlannedPeriod(rate > 0 ? 1e9 / rate : 0);
+		}
+		plan = newPlan;
+	}
+
+	@Override
+	public void run() {
+		long nextSlot = System.nanoTime();
+		int slot = 0;
+
+		while (!this.isInterrupted()) {
+			UltrasonicPoller poller = plan[slot];
+			if (poller != null)
+				poller.ping();
+			slot = (slot + 1) % slotsPerPlan;
+
+			// Start the next slot on time, skipping the slots that are
+			// already over
+			nextSlot += slotLength;
+			long wait = nextSlot - System.nanoTime();
+			while (wait < 0) {
+				nextSlot += slotLength;
+				slot = (slot + 1) % slotsPerPlan;
+				missedSlots++;
+				wait += slotLength;
+			}
+			try {
+				Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+			} catch (InterruptedException e) {
+				break;
+			}
+		}
+	}
+}
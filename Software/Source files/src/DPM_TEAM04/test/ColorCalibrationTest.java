@@ -0,0 +1,75 @@
+package DPM_TEAM04.test;
+
+import java.io.File;
+import java.io.IOException;
+
+import DPM_TEAM04.Resources;
+import DPM_TEAM04.sensing.BlockClassifier;
+import lejos.hardware.Button;
+
+/**
+ * Calibration run of the block classifier. Hold UP while a styrofoam block is
+ * in front of the color sensor and DOWN while an obstacle is, moving the
+ * object around to cover the usual distances and angles. ENTER builds the
+ * table and saves it, it is then loaded by {@link Resources} on every start.
+ * ESCAPE exits without saving.
+ *
+ * @author team04
+ */
+public class ColorCalibrationTest {
+
+	public static void main(String[] args) {
+
+		Resources.initialize = true;
+
+		BlockClassifier classifier = Resources.blockClassifier;
+		float[] rgb = new float[3];
+		int blockSamples = 0, obstacleSamples = 0;
+
+		while (true) {
+			int buttons = Button.readButtons();
+
+			if (buttons == Button.ID_UP || buttons == Button.ID_DOWN) {
+				Resources.getColorRGB(rgb);
+				if (buttons == Button.ID_UP) {
+					classifier.addCalibrationSample(BlockClassifier.Type.BLOCK,
+							rgb);
+					blockSamples++;
+				} else {
+					classifier.addCalibrationSample(
+							BlockClassifier.Type.OBSTACLE, rgb);
+					obstacleSamples++;
+				}
+			} else if (buttons == Button.ID_ENTER) {
+				break;
+			} else if (buttons == Button.ID_ESCAPE) {
+				System.exit(0);
+			}
+
+			Resources.lcd.drawString("Block: " + blockSamples + "   ", 0, 0);
+			Resources.lcd.drawString("Obstacle: " + obstacleSamples + "   ", 0,
+					1);
+
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+			}
+		}
+
+		classifier.buildTable();
+		try {
+			classifier.save(new File(Resources.BLOCK_TABLE_FILE));
+			Resources.lcd.drawString("Saved", 0, 2);
+		} catch (IOException e) {
+			Resources.lcd.drawString("Save failed", 0, 2);
+		}
+
+		// Check the table on live samples
+		while (Button.readButtons() != Button.ID_ESCAPE) {
+			BlockClassifier.Type type = classifier.classify();
+			Resources.lcd.drawString(type + " " + classifier.getConfidence()
+					+ "   ", 0, 3);
+		}
+		System.exit(0);
+	}
+}
@@ -0,0 +1,185 @@
+package DPM_TEAM04.test;
+
+import static DPM_TEAM04.Resources.LEFT_WHEEL_RADIUS;
+import static DPM_TEAM04.Resources.RIGHT_WHEEL_RADIUS;
+import static DPM_TEAM04.Resources.TRACK;
+
+import java.util.Random;
+
+import DPM_TEAM04.geometry.FixedPoint;
+import DPM_TEAM04.odometry.OdometryIntegrator;
+import lejos.hardware.Button;
+
+/**
+ * Compares the cost of the fixed-point math with the double precision math
+ * it replaces: the trigonometric functions alone, then a whole odometer
+ * update from the tacho counts, with exact arcs in doubles and with a
+ * {@link OdometryIntegrator.FixedPointPose}. Also prints the largest error
+ * of the fixed-point results, for the update the largest distance between
+ * both poses along a path of all the updates.
+ *
+ * On the brick the results stay on the screen until a button is pressed;
+ * with the argument "pc" the benchmark exits right away, e.g. to compare
+ * the costs on a computer with a floating point unit.
+ *
+ * @author team04
+ */
+public class FixedPointBenchmark {
+
+	private static final int SAMPLES = 1024;
+	private static final int REPETITIONS = 50;
+
+	// Keeps the results alive so the loops are not optimized away
+	private static double sink;
+
+	public static void main(String[] args) {
+		boolean onBrick = args.length == 0 || !args[0].equals("pc");
+
+		Random random = new Random(0);
+		double[] angles = new double[SAMPLES];
+		int[] fixedAngles = new int[SAMPLES];
+		double[] xs = new double[SAMPLES], ys = new double[SAMPLES];
+		int[] fixedXs = new int[SAMPLES], fixedYs = new int[SAMPLES];
+		int[] tachoL = new int[SAMPLES], tachoR = new int[SAMPLES];
+
+		for (int i = 0; i < SAMPLES; i++) {
+			angles[i] = random.nextDouble() * 2 * Math.PI;
+			fixedAngles[i] = FixedPoint.toAngle(angles[i]);
+			xs[i] = random.nextDouble() * 400 - 200;
+			ys[i] = random.nextDouble() * 400 - 200;
+			fixedXs[i] = FixedPoint.toFixed(xs[i]);
+			fixedYs[i] = FixedPoint.toFixed(ys[i]);
+			// Tacho changes of one update at 100 Hz, up to 400 deg/s
+			tachoL[i] = random.nextInt(5);
+			tachoR[i] = tachoL[i] + random.nextInt(3) - 1;
+		}
+
+		System.out.println("op      double_us fixed_us max_err");
+
+		// sin and cos
+		long start = System.nanoTime();
+		for (int r = 0; r < REPETITIONS; r++)
+			for (int i = 0; i < SAMPLES; i++)
+				sink += Math.sin(angles[i]) + Math.cos(angles[i]);
+		double doubleTime = perCall(start);
+
+		start = System.nanoTime();
+		int fixedSink = 0;
+		for (int r = 0; r < REPETITIONS; r++)
+			for (int i = 0; i < SAMPLES; i++)
+				fixedSink += FixedPoint.sin(fixedAngles[i])
+						+ FixedPoint.cos(fixedAngles[i]);
+		double fixedTime = perCall(start);
+
+		double error = 0;
+		for (int i = 0; i < SAMPLES; i++)
+			error = Math.max(error, Math.abs(FixedPoint.toDouble(FixedPoint
+					.sin(fixedAngles[i])) - Math.sin(angles[i])));
+		print("sin+cos", doubleTime, fixedTime, error);
+
+		// atan2
+		start = System.nanoTime();
+		for (int r = 0; r < REPETITIONS; r++)
+			for (int i = 0; i < SAMPLES; i++)
+				sink += Math.atan2(ys[i], xs[i]);
+		doubleTime = perCall(start);
+
+		start = System.nanoTime();
+		for (int r = 0; r < REPETITIONS; r++)
+			for (int i = 0; i < SAMPLES; i++)
+				fixedSink += FixedPoint.atan2(fixedYs[i], fixedXs[i]);
+		fixedTime = perCall(start);
+
+		error = 0;
+		for (int i = 0; i < SAMPLES; i++)
+			error = Math.max(error, Math.abs(FixedPoint.toRad(FixedPoint
+					.atan2(fixedYs[i], fixedXs[i]))
+					- Math.atan2(ys[i], xs[i])));
+		print("atan2", doubleTime, fixedTime, error);
+
+		// sqrt
+		start = System.nanoTime();
+		for (int r = 0; r < REPETITIONS; r++)
+			for (int i = 0; i < SAMPLES; i++)
+				sink += Math.sqrt(Math.abs(xs[i]));
+		doubleTime = perCall(start);
+
+		start = System.nanoTime();
+		for (int r = 0; r < REPETITIONS; r++)
+			for (int i = 0; i < SAMPLES; i++)
+				fixedSink += FixedPoint.sqrt(Math.abs(fixedXs[i]));
+		fixedTime = perCall(start);
+
+		error = 0;
+		for (int i = 0; i < SAMPLES; i++)
+			error = Math.max(error, Math.abs(FixedPoint.toDouble(FixedPoint
+					.sqrt(Math.abs(fixedXs[i]))) - Math.sqrt(Math.abs(xs[i]))));
+		print("sqrt", doubleTime, fixedTime, error);
+
+		// Whole odometer update, from the tacho counts to the pose
+		double[] delta = new double[3], pose = new double[3];
+		start = System.nanoTime();
+		for (int r = 0; r < REPETITIONS; r++)
+			for (int i = 0; i < SAMPLES; i++)
+				update(pose, delta, tachoL[i], tachoR[i]);
+		sink += pose[0];
+		doubleTime = perCall(start);
+
+		OdometryIntegrator.FixedPointPose fixedPose =
+				new OdometryIntegrator.FixedPointPose(LEFT_WHEEL_RADIUS,
+						RIGHT_WHEEL_RADIUS, TRACK);
+		start = System.nanoTime();
+		for (int r = 0; r < REPETITIONS; r++)
+			for (int i = 0; i < SAMPLES; i++)
+				fixedPose.update(tachoL[i], tachoR[i]);
+		sink += fixedPose.getX();
+		fixedTime = perCall(start);
+
+		error = 0;
+		pose[0] = pose[1] = pose[2] = 0;
+		fixedPose.set(0, 0, 0);
+		for (int i = 0; i < SAMPLES; i++) {
+			update(pose, delta, tachoL[i], tachoR[i]);
+			fixedPose.update(tachoL[i], tachoR[i]);
+			error = Math.max(error, Math.hypot(pose[0] - fixedPose.getX(),
+					pose[1] - fixedPose.getY()));
+		}
+		print("update", doubleTime, fixedTime, error);
+
+		sink += fixedSink;
+		if (onBrick) {
+			Button.waitForAnyPress();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * Odometer update in doubles, as done with exact arcs
+	 */
+	private static void update(double[] pose, double[] delta, int tachoL,
+			int tachoR) {
+		double distL = OdometryIntegrator.wheelDistance(LEFT_WHEEL_RADIUS,
+				tachoL);
+		double distR = OdometryIntegrator.wheelDistance(RIGHT_WHEEL_RADIUS,
+				tachoR);
+		OdometryIntegrator.integrate(OdometryIntegrator.Mode.EXACT_ARC,
+				pose[2], distL, distR, TRACK, delta);
+		pose[0] += delta[0];
+		pose[1] += delta[1];
+		pose[2] = (pose[2] + delta[2]) % (2 * Math.PI);
+	}
+
+	private static double perCall(long start) {
+		return (System.nanoTime() - start) / 1e3 / REPETITIONS / SAMPLES;
+	}
+
+	private static void print(String name, double doubleTime,
+			double fixedTime, double error) {
+		System.out.println(name + " " + format(doubleTime) + " "
+				+ format(fixedTime) + " " + (float) error);
+	}
+
+	private static String format(double value) {
+		return String.valueOf(Math.round(value * 1000) / 1000.0);
+	}
+}
@@ -0,0 +1,147 @@
+package DPM_TEAM04.test;
+
+import java.util.LinkedList;
+import java.util.Random;
+
+import DPM_TEAM04.sensing.SlidingExtrema;
+import lejos.hardware.Button;
+
+/**
+ * Compares the cost of looking for a line in the last colour samples, as
+ * the odometry correction does on every sample: with a list of sample and
+ * angle objects scanned for its extrema, as it used to, and with a
+ * {@link SlidingExtrema} and an array of angles. The window covers one
+ * second of samples, so faster sampling means a larger window.
+ *
+ * Prints the time per sample and the memory allocated per sample, measured
+ * from the free memory of the JVM (a garbage collection during the run shows
+ * as a negative or too small value). Pass "pc" as argument to run it on a
+ * computer.
+ *
+ * @author team04
+ */
+public class LineWindowBenchmark {
+
+	private static final int[] WINDOWS = { 20, 50, 100, 200 };
+	private static final int SAMPLES = 20000;
+
+	// Keeps the results alive so the loops are not optimized away
+	private static double sink;
+
+	public static void main(String[] args) {
+		boolean onBrick = args.length == 0 || !args[0].equals("pc");
+
+		// Colour differences with noise and a line every 500 samples
+		Random random = new Random(0);
+		float[] differences = new float[SAMPLES];
+		double[] angles = new double[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			differences[i] = (float) (random.nextGaussian() * 5);
+			if (i % 500 == 0)
+				differences[i] += 100;
+			else if (i % 500 == 5)
+				differences[i] -= 50;
+			angles[i] = i * 2.0 * Math.PI / SAMPLES;
+		}
+
+		// Warm up both versions before measuring
+		list(differences, angles, WINDOWS[0]);
+		ring(differences, angles, WINDOWS[0]);
+
+		System.out.println("window list_us list_B ring_us ring_B");
+		for (int window : WINDOWS) {
+			long[] list = list(differences, angles, window);
+			long[] ring = ring(differences, angles, window);
+			System.out.println(window + " " + format(list[0] / 1e3 / SAMPLES)
+					+ " " + list[1] / SAMPLES + " "
+					+ format(ring[0] / 1e3 / SAMPLES) + " " + ring[1]
+					/ SAMPLES);
+		}
+
+		if (onBrick) {
+			Button.waitForAnyPress();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * The window as it used to be: a list of pairs, scanned on every sample
+	 *
+	 * @return the time taken in ns and the memory allocated in bytes
+	 */
+	private static long[] list(float[] differences, double[] angles,
+			int window) {
+		LinkedList<Pair> samples = new LinkedList<Pair>();
+		long memory = usedMemory();
+		long start = System.nanoTime();
+		for (int i = 0; i < SAMPLES; i++) {
+			samples.addLast(new Pair(differences[i], angles[i]));
+			if (samples.size() > window)
+				samples.removeFirst();
+			else
+				continue;
+
+			Pair max = new Pair(0, 0), min = new Pair(0, 0);
+			max = samples.get(0);
+			min = samples.get(0);
+			for (int j = 1; j < samples.size(); j++) {
+				Pair current = samples.get(j);
+				if (current.difference > max.difference)
+					max = current;
+				if (current.difference < min.difference)
+					min = current;
+			}
+			if (max.difference >= 70 && min.difference <= -30) {
+				sink += max.angle + min.angle;
+				samples.clear();
+			}
+		}
+		long time = System.nanoTime() - start;
+		return new long[] { time, usedMemory() - memory };
+	}
+
+	/**
+	 * The window as it is now: monotonic deques and a ring of angles
+	 *
+	 * @return the time taken in ns and the memory allocated in bytes
+	 */
+	private static long[] ring(float[] differences, double[] angles,
+			int window) {
+		SlidingExtrema samples = new SlidingExtrema(window);
+		double[] sampleAngles = new double[window];
+		long memory = usedMemory();
+		long start = System.nanoTime();
+		for (int i = 0; i < SAMPLES; i++) {
+			long index = samples.add(differences[i]);
+			sampleAngles[(int) (index % window)] = angles[i];
+			if (samples.getCount() <= window)
+				continue;
+
+			if (samples.getMax() >= 70 && samples.getMin() <= -30) {
+				sink += sampleAngles[(int) (samples.getMaxIndex() % window)]
+						+ sampleAngles[(int) (samples.getMinIndex() % window)];
+				samples.reset();
+			}
+		}
+		long time = System.nanoTime() - start;
+		return new long[] { time, usedMemory() - memory };
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static String format(double value) {
+		return String.valueOf(Math.round(value * 1000) / 1000.0);
+	}
+
+	private static class Pair {
+		final double difference, angle;
+
+		Pair(double difference, double angle) {
+			this.difference = difference;
+			this.angle = angle;
+		}
+	}
+}
@@ -1,69 +1,91 @@
-package DPM_TEAM04.test;
-
-import DPM_TEAM04.Resources;
-import DPM_TEAM04.geometry.CoordinateSystem;
-import DPM_TEAM04.logging.DataEntryProvider;
-import DPM_TEAM04.logging.LCDLogger;
-import DPM_TEAM04.odometry.Odometer;
-import lejos.hardware.Button;
-
-import static DPM_TEAM04.Resources.*;
-
-/**
- * Test class to test the odometer using float motors.
- * 
- * @author team04
- *
- */
-public class OdometerTest {
-
-	public static final int VERSION_NB = 1;
-
-	public static void main(String[] args) {
-		Resources.initialize = true;
-
-		final Odometer odometer = Odometer.getOdometer();
-
-		// Initialize the display
-		DataEntryProvider versionProvider = new DataEntryProvider("Version") {
-			@Override
-			public double getEntry() {
-				return VERSION_NB;
-			}
-		};
-
-		DataEntryProvider xProvider = new DataEntryProvider("X") {
-			@Override
-			public double getEntry() {
-				return odometer.getPosition().getX();
-			}
-		};
-
-		DataEntryProvider yProvider = new DataEntryProvider("Y") {
-			@Override
-			public double getEntry() {
-				return odometer.getPosition().getY();
-			}
-		};
-
-		DataEntryProvider tProvider = new DataEntryProvider("T") {
-			@Override
-			public double getEntry() {
-				return odometer.getPosition().getDirection(
-						CoordinateSystem.POLAR_DEG);
-			}
-		};
-
-		LCDLogger lcdLog = new LCDLogger(DISPLAY_PERIOD, 2, versionProvider,
-				xProvider, yProvider, tProvider);
-
-		odometer.start();
-		lcdLog.start();
-		leftMotor.flt();
-		rightMotor.flt();
-
-		Button.waitForAnyPress();
-		System.exit(0);
-	}
-
-}
+package DPM_TEAM04.test;
+
+import DPM_TEAM04.Resources;
+import DPM_TEAM04.geometry.CoordinateSystem;
+import DPM_TEAM04.logging.DataEntryProvider;
+import DPM_TEAM04.logging.LCDLogger;
+import DPM_TEAM04.odometry.Odometer;
+import lejos.hardware.Button;
+
+import static DPM_TEAM04.Resources.*;
+
+/**
+ * Test class to test the odometer using float motors.
+ * 
+ * @author team04
+ *
+ */
+public class OdometerTest {
+
+	public static final int VERSION_NB = 1;
+
+	public static void main(String[] args) {
+		Resources.initialize = true;
+
+		final Odometer odometer = Odometer.getOdometer();
+
+		// Initialize the display
+		DataEntryProvider versionProvider = new DataEntryProvider("Version") {
+			@Override
+			public double getEntry() {
+				return VERSION_NB;
+			}
+		};
+
+		DataEntryProvider xProvider = new DataEntryProvider("X") {
+			@Override
+			public double getEntry() {
+				return odometer.getPose().getX();
+			}
+		};
+
+		DataEntryProvider yProvider = new DataEntryProvider("Y") {
+			@Override
+			public double getEntry() {
+				return odometer.getPose().getY();
+			}
+		};
+
+		DataEntryProvider tProvider = new DataEntryProvider("T") {
+			@Override
+			public double getEntry() {
+				return odometer.getPose().getDirection(
+						CoordinateSystem.POLAR_DEG);
+			}
+		};
+
+		DataEntryProvider periodProvider = new DataEntryProvider("Period ms") {
+			@Override
+			public double getEntry() {
+				return odometer.getAveragePeriod() / 1e6;
+			}
+		};
+
+		DataEntryProvider jitterProvider = new DataEntryProvider("Jitter ms") {
+			@Override
+			public double getEntry() {
+				return odometer.getJitter() / 1e6;
+			}
+		};
+
+		DataEntryProvider overrunProvider = new DataEntryProvider("Overruns") {
+			@Override
+			public double getEntry() {
+				return odometer.getOverruns();
+			}
+		};
+
+		LCDLogger lcdLog = new LCDLogger(DISPLAY_PERIOD, 2, versionProvider,
+				xProvider, yProvider, tProvider, periodProvider,
+				jitterProvider, overrunProvider);
+
+		odometer.start();
+		lcdLog.start();
+		leftMotor.flt();
+		rightMotor.flt();
+
+		Button.waitForAnyPress();
+		System.exit(0);
+	}
+
+}
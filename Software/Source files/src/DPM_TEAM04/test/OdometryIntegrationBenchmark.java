@@ -0,0 +1,202 @@
+package DPM_TEAM04.test;
+
+import static DPM_TEAM04.Resources.LEFT_WHEEL_RADIUS;
+import static DPM_TEAM04.Resources.RIGHT_WHEEL_RADIUS;
+import static DPM_TEAM04.Resources.TRACK;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import DPM_TEAM04.Resources;
+import DPM_TEAM04.logging.DataEntryProvider;
+import DPM_TEAM04.logging.FileLogger;
+import DPM_TEAM04.odometry.OdometryIntegrator;
+import lejos.hardware.Button;
+
+/**
+ * Compares the accuracy and the cost of the odometer integration modes at
+ * different rates.
+ *
+ * A trace of the tacho counts is first recorded at a high rate while the robot
+ * is pushed around by hand (motors floating), until a button is pressed. The
+ * trace is then integrated by every mode using only every n-th sample, as if
+ * the odometer ran n times slower, and the final pose is compared to the one
+ * obtained with exact arcs on every sample. Pass "replay" as argument to
+ * reuse the recorded trace; the replay also runs on a computer.
+ *
+ * @author team04
+ */
+public class OdometryIntegrationBenchmark {
+
+	private static final String TRACE_FILE = "tacho_trace.csv";
+	private static final int TRACE_PERIOD = 5; // in ms
+	private static final int[] DECIMATIONS = { 1, 2, 4, 8, 16 };
+	private static final int REPETITIONS = 20;
+
+	public static void main(String[] args) throws Exception {
+
+		boolean onBrick = args.length == 0 || !args[0].equals("replay");
+		if (onBrick)
+			recordTrace();
+
+		ArrayList<int[]> trace = readTrace();
+		if (trace.size() < 2) {
+			System.out.println("Trace is empty");
+			return;
+		}
+
+		// Reference pose, exact arcs on every sample
+		double[] reference = integrate(trace,
+				OdometryIntegrator.Mode.EXACT_ARC, 1);
+
+		System.out.println(trace.size() + " samples, reference ("
+				+ format(reference[0]) + ", " + format(reference[1]) + ")");
+		System.out.println("mode  Hz  err cm  err deg  us/update");
+
+		for (int decimation : DECIMATIONS) {
+			for (OdometryIntegrator.Mode mode : OdometryIntegrator.Mode
+					.values()) {
+
+				double[] pose = integrate(trace, mode, decimation);
+
+				// Time many runs to get past the timer resolution
+				long start = System.nanoTime();
+				for (int i = 0; i < REPETITIONS; i++)
+					integrate(trace, mode, decimation);
+				double updateTime = (System.nanoTime() - start) / 1e3
+						/ REPETITIONS / (trace.size() / decimation);
+
+				double positionError = Math.hypot(pose[0] - reference[0],
+						pose[1] - reference[1]);
+				double headingError = Math.toDegrees(Math.abs(Math
+						.IEEEremainder(pose[2] - reference[2], 2 * Math.PI)));
+
+				System.out.println(mode + " "
+						+ (1000 / (TRACE_PERIOD * decimation)) + " "
+						+ format(positionError) + " " + format(headingError)
+						+ " " + format(updateTime));
+			}
+		}
+
+		if (onBrick) {
+			Button.waitForAnyPress();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * Records the tacho counts until a button is pressed
+	 */
+	private static void recordTrace() throws InterruptedException {
+		Resources.initialize = true;
+		Resources.leftMotor.flt();
+		Resources.rightMotor.flt();
+
+		DataEntryProvider timeProvider = new DataEntryProvider("Time") {
+			@Override
+			public double getEntry() {
+				return System.currentTimeMillis();
+			}
+		};
+
+		DataEntryProvider leftProvider = new DataEntryProvider("Left") {
+			@Override
+			public double getEntry() {
+				return Resources.leftMotor.getTachoCount();
+			}
+		};
+
+		DataEntryProvider rightProvider = new DataEntryProvider("Right") {
+			@Override
+			public double getEntry() {
+				return Resources.rightMotor.getTachoCount();
+			}
+		};
+
+		FileLogger recorder = new FileLogger(TRACE_FILE, TRACE_PERIOD,
+				timeProvider, leftProvider, rightProvider);
+
+		System.out.println("Recording, push the robot and press a button");
+		recorder.start();
+		Button.waitForAnyPress();
+		recorder.interrupt();
+		recorder.join();
+	}
+
+	/**
+	 * Reads the left and right tacho counts of every sample of the trace
+	 */
+	private static ArrayList<int[]> readTrace() throws IOException {
+		ArrayList<int[]> trace = new ArrayList<int[]>();
+		BufferedReader reader = new BufferedReader(new FileReader(new File(
+				TRACE_FILE)));
+		try {
+			reader.readLine(); // headings
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] entries = line.split(",");
+				if (entries.length < 3)
+					continue;
+				trace.add(new int[] {
+						(int) Double.parseDouble(entries[1].trim()),
+						(int) Double.parseDouble(entries[2].trim()) });
+			}
+		} finally {
+			reader.close();
+		}
+		return trace;
+	}
+
+	/**
+	 * Integrates the trace from the origin using every n-th sample
+	 *
+	 * @return the final x, y and heading
+	 */
+	private static double[] integrate(ArrayList<int[]> trace,
+			OdometryIntegrator.Mode mode, int decimation) {
+		double[] pose = new double[3];
+		double[] delta = new double[3];
+		int[] last = trace.get(0);
+
+		// The odometer keeps its pose in fixed point in this mode
+		OdometryIntegrator.FixedPointPose fixedPose = null;
+		if (mode == OdometryIntegrator.Mode.FIXED_POINT)
+			fixedPose = new OdometryIntegrator.FixedPointPose(
+					LEFT_WHEEL_RADIUS, RIGHT_WHEEL_RADIUS, TRACK);
+
+		// The last sample is always used so every run ends at the same place
+		int i = 0;
+		while (i < trace.size() - 1) {
+			i = Math.min(i + decimation, trace.size() - 1);
+			int[] sample = trace.get(i);
+			if (fixedPose != null) {
+				fixedPose.update(sample[0] - last[0], sample[1] - last[1]);
+				last = sample;
+				continue;
+			}
+			double distL = OdometryIntegrator.wheelDistance(LEFT_WHEEL_RADIUS,
+					sample[0] - last[0]);
+			double distR = OdometryIntegrator.wheelDistance(
+					RIGHT_WHEEL_RADIUS, sample[1] - last[1]);
+			OdometryIntegrator.integrate(mode, pose[2], distL, distR, TRACK,
+					delta);
+			pose[0] += delta[0];
+			pose[1] += delta[1];
+			pose[2] += delta[2];
+			last = sample;
+		}
+		if (fixedPose != null) {
+			pose[0] = fixedPose.getX();
+			pose[1] = fixedPose.getY();
+			pose[2] = fixedPose.getTheta();
+		}
+		return pose;
+	}
+
+	private static String format(double value) {
+		return String.valueOf(Math.round(value * 100) / 100.0);
+	}
+}
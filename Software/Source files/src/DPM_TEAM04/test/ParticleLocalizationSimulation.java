@@ -0,0 +1,123 @@
+package DPM_TEAM04.test;
+
+import static DPM_TEAM04.Resources.LOCALIZATION_CELL_SIZE;
+import static DPM_TEAM04.Resources.LOCALIZATION_MAX_HEADING_SPREAD;
+import static DPM_TEAM04.Resources.LOCALIZATION_MAX_POSITION_SPREAD;
+import static DPM_TEAM04.Resources.LOCALIZATION_MIN_SWEEP;
+import static DPM_TEAM04.Resources.MAP_DIMENSION;
+import static DPM_TEAM04.Resources.TILE_WIDTH;
+import static DPM_TEAM04.Resources.US_TO_CENTER;
+
+import java.util.Random;
+
+import DPM_TEAM04.odometry.DistanceField;
+import DPM_TEAM04.odometry.ParticleLocalizer;
+
+/**
+ * Simulates the particle filter localization in the first corner, on a
+ * computer. The robot is placed at random in the corner tile and rotates on
+ * itself while noisy ranges to the walls are generated. For every particle
+ * count, prints how far the robot rotated before the particles agreed, the
+ * error of the pose found and the time taken, computing the weights on one
+ * thread and with a fork-join pool.
+ *
+ * Usage: ParticleLocalizationSimulation [trials] [threads]
+ *
+ * @author team04
+ */
+public class ParticleLocalizationSimulation {
+
+	private static final int[] PARTICLE_COUNTS = { 250, 500, 1000, 4000 };
+	private static final double MAX_RANGE = 100; // cm, clip of the sensor
+	private static final double READING_STEP = Math.toRadians(2);
+	private static final double RANGE_NOISE = 1.0; // cm
+
+	public static void main(String[] args) {
+		int trials = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime
+				.getRuntime().availableProcessors();
+
+		DistanceField field = DistanceField.ofField(LOCALIZATION_CELL_SIZE);
+
+		System.out.println("particles threads sweep_deg err_cm err_deg ms");
+		for (int count : PARTICLE_COUNTS) {
+			for (int parallelism : new int[] { 0, threads }) {
+				// Same poses, readings and particle noise for every
+				// configuration
+				ParticleLocalizer particles = new ParticleLocalizer(count,
+						field, MAX_RANGE, parallelism, 0);
+				Random random = new Random(0);
+				double sweep = 0, positionError = 0, headingError = 0;
+				long start = System.nanoTime();
+				for (int i = 0; i < trials; i++) {
+					double[] result = localize(particles, random);
+					sweep += result[0];
+					positionError += result[1];
+					headingError += result[2];
+				}
+				long time = System.nanoTime() - start;
+				particles.shutdown();
+
+				System.out.println(count + " " + parallelism + " "
+						+ format(Math.toDegrees(sweep / trials)) + " "
+						+ format(positionError / trials) + " "
+						+ format(Math.toDegrees(headingError / trials)) + " "
+						+ format(time / 1e6 / trials));
+			}
+		}
+	}
+
+	/**
+	 * Localizes the robot from a random pose in the first corner
+	 *
+	 * @return the rotation needed, the position and heading errors
+	 */
+	private static double[] localize(ParticleLocalizer particles,
+			Random random) {
+		double margin = 5.0;
+		double x = -TILE_WIDTH + margin + random.nextDouble()
+				* (TILE_WIDTH - 2 * margin);
+		double y = -TILE_WIDTH + margin + random.nextDouble()
+				* (TILE_WIDTH - 2 * margin);
+		double initialHeading = random.nextDouble() * 2.0 * Math.PI;
+
+		particles.spread(-TILE_WIDTH, -TILE_WIDTH, 0, 0);
+		double[] estimate = new double[5];
+
+		// The odometer starts at the origin, the robot rotates on itself
+		double rotation = 0;
+		while (rotation < 2.0 * Math.PI) {
+			double range = rangeToWall(x, y, initialHeading + rotation)
+					+ RANGE_NOISE * random.nextGaussian();
+			particles.update(0, 0, rotation, range < MAX_RANGE ? range
+					: Double.POSITIVE_INFINITY);
+
+			particles.getEstimate(estimate);
+			if (rotation >= LOCALIZATION_MIN_SWEEP
+					&& estimate[3] < LOCALIZATION_MAX_POSITION_SPREAD
+					&& estimate[4] < LOCALIZATION_MAX_HEADING_SPREAD)
+				break;
+			rotation += READING_STEP;
+		}
+
+		double headingError = Math.abs(Math.IEEEremainder(estimate[2]
+				- (initialHeading + rotation), 2.0 * Math.PI));
+		return new double[] { rotation,
+				Math.hypot(estimate[0] - x, estimate[1] - y), headingError };
+	}
+
+	/**
+	 * Range the front sensor reads to the walls from a pose
+	 */
+	private static double rangeToWall(double x, double y, double heading) {
+		double low = -TILE_WIDTH, high = (MAP_DIMENSION - 1) * TILE_WIDTH;
+		double cos = Math.cos(heading), sin = Math.sin(heading);
+		double toWallX = cos > 0 ? (high - x) / cos : (low - x) / cos;
+		double toWallY = sin > 0 ? (high - y) / sin : (low - y) / sin;
+		return Math.min(toWallX, toWallY) - US_TO_CENTER;
+	}
+
+	private static String format(double value) {
+		return String.valueOf(Math.round(value * 100) / 100.0);
+	}
+}
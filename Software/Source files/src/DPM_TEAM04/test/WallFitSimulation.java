@@ -0,0 +1,133 @@
+package DPM_TEAM04.test;
+
+import static DPM_TEAM04.Resources.MAP_DIMENSION;
+import static DPM_TEAM04.Resources.TILE_WIDTH;
+import static DPM_TEAM04.Resources.US_SIDE_ANGLE;
+import static DPM_TEAM04.Resources.US_SIDE_TO_CENTER;
+import static DPM_TEAM04.Resources.US_TO_CENTER;
+import static DPM_TEAM04.Resources.WALL_FIT_MAX_RANGE;
+import static DPM_TEAM04.Resources.WALL_FIT_MAX_SWEEP;
+
+import java.util.Random;
+
+import DPM_TEAM04.odometry.WallFitLocalizer;
+
+/**
+ * Simulates the wall fit localization on a computer. The robot is placed at
+ * random in the tile of a random corner and rotates on itself while noisy
+ * ranges are generated for the front and side sensors. A sensor only gets an
+ * echo from a wall it faces within the beam angle. For every range noise,
+ * prints how far the robot rotated before both walls were seen, the error of
+ * the pose found and how many trials did not find the corner.
+ *
+ * Usage: WallFitSimulation [trials]
+ *
+ * @author team04
+ */
+public class WallFitSimulation {
+
+	private static final double[] RANGE_NOISES = { 0.5, 1.0, 1.5 }; // cm
+	private static final double READING_STEP = Math.toRadians(1);
+	// The ultrasonic sensors see a wall up to this angle from its normal
+	private static final double BEAM_ANGLE = Math.toRadians(25);
+	private static final double NO_ECHO = 255;
+
+	private static final double LOW = -TILE_WIDTH,
+			HIGH = (MAP_DIMENSION - 1) * TILE_WIDTH;
+
+	public static void main(String[] args) {
+		int trials = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+		System.out.println("noise_cm sweep_deg err_cm err_deg max_err_cm failed");
+		for (double noise : RANGE_NOISES) {
+			Random random = new Random(0);
+			WallFitLocalizer walls = new WallFitLocalizer(2, WALL_FIT_MAX_RANGE);
+			double sweep = 0, positionError = 0, headingError = 0, worst = 0;
+			int failed = 0;
+			for (int i = 0; i < trials; i++) {
+				double[] result = localize(walls, random, noise);
+				if (result == null) {
+					failed++;
+					continue;
+				}
+				sweep += result[0];
+				positionError += result[1];
+				headingError += result[2];
+				worst = Math.max(worst, result[1]);
+			}
+			int found = Math.max(1, trials - failed);
+			System.out.println(noise + " "
+					+ format(Math.toDegrees(sweep / found)) + " "
+					+ format(positionError / found) + " "
+					+ format(Math.toDegrees(headingError / found)) + " "
+					+ format(worst) + " " + failed);
+		}
+	}
+
+	/**
+	 * Localizes the robot from a random pose in a random corner
+	 *
+	 * @return the rotation needed, the position and heading errors, null if
+	 *         the corner was not found
+	 */
+	private static double[] localize(WallFitLocalizer walls, Random random,
+			double noise) {
+		int corner = 1 + random.nextInt(4);
+		double margin = 10.0;
+		double cornerX = (corner == 2 || corner == 3) ? HIGH - TILE_WIDTH
+				: LOW;
+		double cornerY = (corner == 3 || corner == 4) ? HIGH - TILE_WIDTH
+				: LOW;
+		double x = cornerX + margin + random.nextDouble()
+				* (TILE_WIDTH - 2 * margin);
+		double y = cornerY + margin + random.nextDouble()
+				* (TILE_WIDTH - 2 * margin);
+		double initialHeading = random.nextDouble() * 2.0 * Math.PI;
+
+		walls.reset();
+
+		// The odometer starts at the origin, the robot rotates on itself
+		double rotation = 0;
+		boolean found = false;
+		while (rotation < Math.toRadians(WALL_FIT_MAX_SWEEP) && !found) {
+			double heading = initialHeading + rotation;
+			walls.addReading(0, 0, 0, rotation, range(x, y, heading, random,
+					noise, US_TO_CENTER) + US_TO_CENTER);
+			walls.addReading(1, 0, 0, rotation + US_SIDE_ANGLE, range(x, y,
+					heading + US_SIDE_ANGLE, random, noise, US_SIDE_TO_CENTER)
+					+ US_SIDE_TO_CENTER);
+			found = walls.hasCorner(0, 0);
+			if (!found)
+				rotation += READING_STEP;
+		}
+
+		double[] pose = new double[3];
+		if (!walls.locate(corner, 0, 0, rotation, pose))
+			return null;
+		double headingError = Math.abs(Math.IEEEremainder(pose[2]
+				- (initialHeading + rotation), 2.0 * Math.PI));
+		return new double[] { rotation, Math.hypot(pose[0] - x, pose[1] - y),
+				headingError };
+	}
+
+	/**
+	 * Range a sensor reads to the walls from a pose, or no echo if the beam
+	 * hits the wall too far from its normal
+	 */
+	private static double range(double x, double y, double heading,
+			Random random, double noise, double toCenter) {
+		double cos = Math.cos(heading), sin = Math.sin(heading);
+		double toWallX = cos > 0 ? (HIGH - x) / cos : (LOW - x) / cos;
+		double toWallY = sin > 0 ? (HIGH - y) / sin : (LOW - y) / sin;
+		double incidence = toWallX < toWallY ? Math.acos(Math.abs(cos))
+				: Math.acos(Math.abs(sin));
+		if (incidence > BEAM_ANGLE)
+			return NO_ECHO;
+		return Math.min(toWallX, toWallY) - toCenter + noise
+				* random.nextGaussian();
+	}
+
+	private static String format(double value) {
+		return String.valueOf(Math.round(value * 100) / 100.0);
+	}
+}